@@ -0,0 +1,186 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times report generation end to end and every phase on its own, over synthetic datasets, one benchmark method per
+ * phase. Everything runs on the benchmark thread.
+ * <p>
+ * Phases:
+ * <ul>
+ *     <li>{@code summarize} - grouping the rows by status</li>
+ *     <li>{@code aggregate} - totals by status and then account type, like the page 1 summary</li>
+ *     <li>{@code plan} - page breaks, from the status groups</li>
+ *     <li>{@code measure} - the widest value of every column, which the columns are sized from</li>
+ *     <li>{@code rows} - drawing the page contents, mostly the employee rows</li>
+ *     <li>{@code pages} - the render pass into a document, rows plus the PDFBox page objects</li>
+ *     <li>{@code save} - {@code PDDocument.save} of the rendered document</li>
+ *     <li>{@code endToEnd} - all of the above, like {@code generatePdfFile} without the disk</li>
+ * </ul>
+ * The parameters are the dataset size, the weight of each status in ordinal order ({@code 98,1,1} puts almost all
+ * rows in one group) and where measurements go: {@code off}, {@code jmx} or {@code jfr}. Running once with
+ * {@code off} and once with {@code jmx} or {@code jfr} shows what measuring costs.
+ * <p>
+ * {@link #main} runs all cases with the GC profiler, which adds the bytes allocated per operation and the collections
+ * to every result, and writes the results as JSON so runs before and after a change can be compared. JMH options can
+ * be passed to narrow it down, e.g. {@code -p rows=1000000 -p skew=98,1,1 -rff before.json}; the benchmarks.jar of this
+ * module takes the same options. The {@code pages}, {@code save} and {@code endToEnd} phases hold the whole document
+ * in memory, so 10M rows need a few GB of heap, e.g. {@code -jvmArgs -Xmx8g}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerationBenchmark {
+
+    private static final List<EmployeeColumn> SUMMARY_KEYS = List.of(EmployeeColumn.STATUS, EmployeeColumn.ACCOUNT_TYPE_NAME);
+
+    @Param({"100", "10000", "1000000"})
+    public long rows;
+
+    @Param({"1,1,1", "98,1,1"})
+    public String skew;
+
+    @Param({"off"})
+    public String metrics;
+
+    private EmployeeRowSource rowSource;
+    private List<StatusGroup> groups;
+    private ReportLayout layout;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(GenerationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    // Inputs a phase starts from are prepared outside the timed part
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (metrics) {
+            case "off":
+                Pdfbox.setMetrics(ReportMetrics.NOOP);
+                break;
+            case "jmx":
+                Pdfbox.setMetrics(new JmxReportMetrics());
+                break;
+            case "jfr":
+                Pdfbox.setMetrics(new JfrReportMetrics());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown metrics: " + metrics);
+        }
+        rowSource = EmployeeRowSource.synthetic(rows, Arrays.stream(skew.split(",")).mapToInt(weight -> Integer.parseInt(weight.trim())).toArray());
+        groups = rowSource.summarizeByStatus();
+        layout = Pdfbox.planReportTable(groups).withColumnWidths(Pdfbox.measureColumns(rowSource));
+    }
+
+    @Benchmark
+    public List<StatusGroup> summarize() {
+        return rowSource.summarizeByStatus();
+    }
+
+    @Benchmark
+    public Aggregate aggregate() {
+        return ReportAggregator.aggregate(rowSource, SUMMARY_KEYS);
+    }
+
+    @Benchmark
+    public ReportLayout plan() {
+        return Pdfbox.planReportTable(groups);
+    }
+
+    @Benchmark
+    public ColumnWidths measure() {
+        return Pdfbox.measureColumns(rowSource);
+    }
+
+    @Benchmark
+    public long rows() throws IOException {
+        return Pdfbox.drawPageContents(rowSource, layout);
+    }
+
+    @Benchmark
+    public int pages() throws IOException {
+        try (var doc = new PDDocument()) {
+            Pdfbox.drawReportTable(doc, rowSource, layout, 1, layout.getPageCount(), 1);
+            return doc.getNumberOfPages();
+        }
+    }
+
+    @Benchmark
+    public long save(RenderedDocument rendered) throws IOException {
+        return save(rendered.doc);
+    }
+
+    @Benchmark
+    public long endToEnd() throws IOException {
+        try (var doc = new PDDocument()) {
+            var plannedLayout = Pdfbox.planReportTable(rowSource);
+            Pdfbox.drawReportTable(doc, rowSource, plannedLayout, 1, plannedLayout.getPageCount(), 1);
+            return save(doc);
+        }
+    }
+
+    private static long save(PDDocument doc) throws IOException {
+        var out = new CountingOutputStream(OutputStream.nullOutputStream());
+        doc.save(out);
+        return out.getCount();
+    }
+
+    /**
+     * A document rendered before every {@code save}, which can only save it once.
+     */
+    @State(Scope.Thread)
+    public static class RenderedDocument {
+        private PDDocument doc;
+
+        @Setup(Level.Invocation)
+        public void render(GenerationBenchmark benchmark) throws IOException {
+            doc = new PDDocument();
+            try {
+                Pdfbox.drawReportTable(doc, benchmark.rowSource, benchmark.layout, 1, benchmark.layout.getPageCount(), 1);
+            } catch (IOException | RuntimeException e) {
+                doc.close();
+                throw e;
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            doc.close();
+        }
+    }
+}
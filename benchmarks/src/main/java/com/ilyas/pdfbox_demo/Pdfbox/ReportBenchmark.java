@@ -0,0 +1,88 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Measures how page rendering scales with the number of threads, and checks that every parallelism saves exactly
+ * the same document as the sequential mode. The first argument is the number of synthetic rows.
+ * <p>
+ * Also reports the bytes allocated per row by a sequential run, which renders on the calling thread. The figure
+ * includes the page content and the PDFBox page objects, so it does not reach zero.
+ */
+public class ReportBenchmark {
+
+    private static final int WARMUP_RUNS = 1;
+    private static final int MEASURED_RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        var rowCount = args.length > 0 ? Long.parseLong(args[0]) : 200_000L;
+        var rowSource = EmployeeRowSource.synthetic(rowCount);
+        var layout = Pdfbox.planReportTable(rowSource);
+
+        var threadCounts = new ArrayList<Integer>();
+        var cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        System.out.printf("%d rows, %d pages, %d cores%n", rowCount, layout.getPageCount(), cores);
+        System.out.printf("allocated bytes/row=%.1f%n", allocatedBytes(rowSource, layout) / (double) rowCount);
+        byte[] sequential = null;
+        double sequentialRate = 0;
+
+        for (var threads : threadCounts) {
+            byte[] saved = null;
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+                var start = System.nanoTime();
+                saved = render(rowSource, layout, threads);
+                if (run >= WARMUP_RUNS) {
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+            }
+
+            var pagesPerSecond = layout.getPageCount() / (best / 1e9);
+            if (sequential == null) {
+                sequential = saved;
+                sequentialRate = pagesPerSecond;
+            }
+            System.out.printf("threads=%-3d pages/sec=%10.0f speedup=%5.2f identical=%s%n",
+                    threads, pagesPerSecond, pagesPerSecond / sequentialRate, Arrays.equals(sequential, saved));
+        }
+    }
+
+    private static long allocatedBytes(EmployeeRowSource rowSource, ReportLayout layout) throws IOException {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = Long.MAX_VALUE;
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+            try (var doc = new PDDocument()) {
+                var before = threads.getCurrentThreadAllocatedBytes();
+                Pdfbox.drawReportTable(doc, rowSource, layout, 1, layout.getPageCount(), 1);
+                var used = threads.getCurrentThreadAllocatedBytes() - before;
+                if (run >= WARMUP_RUNS) {
+                    allocated = Math.min(allocated, used);
+                }
+            }
+        }
+        return allocated;
+    }
+
+    private static byte[] render(EmployeeRowSource rowSource, ReportLayout layout, int parallelism) throws IOException {
+        try (var doc = new PDDocument()) {
+            // A fixed id, otherwise the trailer /ID changes with the clock
+            doc.setDocumentId(0L);
+            Pdfbox.drawReportTable(doc, rowSource, layout, 1, layout.getPageCount(), parallelism);
+
+            var out = new ByteArrayOutputStream();
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Load test for {@link ReportService}: submits many small reports at once, like a nightly run of per-customer
+ * statements, and reports the jobs per second. Half of the jobs write to a channel and half to a stream.
+ * <p>
+ * Arguments, all optional: number of jobs (10000), rows per report (40), concurrent jobs (cores) and queue
+ * capacity (100).
+ */
+public class ReportServiceBenchmark {
+
+    private static final Duration JOB_TIMEOUT = Duration.ofMinutes(1);
+
+    public static void main(String[] args) throws InterruptedException {
+        var jobCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        var rowsPerReport = args.length > 1 ? Long.parseLong(args[1]) : 40L;
+        var concurrency = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        var queueCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        var columns = new EmployeeColumn[]{EmployeeColumn.FIRST_NAME, EmployeeColumn.LAST_NAME, EmployeeColumn.STATUS, EmployeeColumn.BALANCE};
+        var outputs = new CountingOutputStream[jobCount];
+        var futures = new ArrayList<Future<Integer>>(jobCount);
+        long blockedNanos = 0;
+        long start;
+
+        try (var service = ReportService.builder()
+                .maxConcurrentJobs(concurrency)
+                .queueCapacity(queueCapacity)
+                .defaultTimeout(JOB_TIMEOUT)
+                .build()) {
+            System.out.printf("%d jobs of %d rows, %d concurrent, queue of %d%n",
+                    jobCount, rowsPerReport, service.getMaxConcurrentJobs(), service.getQueueCapacity());
+
+            start = System.nanoTime();
+            for (int i = 0; i < jobCount; i++) {
+                outputs[i] = new CountingOutputStream(OutputStream.nullOutputStream());
+                var job = ReportJob.builder(EmployeeRowSource.synthetic(rowsPerReport)).columns(columns);
+                if (i % 2 == 0) {
+                    job.output(outputs[i]);
+                } else {
+                    job.output(Channels.newChannel(outputs[i]));
+                }
+
+                var submitted = System.nanoTime();
+                futures.add(service.submit(job.build()));
+                blockedNanos += System.nanoTime() - submitted;
+            }
+        }
+        var elapsed = System.nanoTime() - start;
+
+        long pages = 0;
+        long bytes = 0;
+        int failed = 0;
+        for (int i = 0; i < jobCount; i++) {
+            try {
+                pages += futures.get(i).get();
+                bytes += outputs[i].getCount();
+            } catch (ExecutionException e) {
+                if (failed++ == 0) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        }
+
+        System.out.printf("jobs/sec=%.0f pages=%d MB=%.1f failed=%d submit blocked=%.0f%% of the run%n",
+                jobCount / (elapsed / 1e9), pages, bytes / 1e6, failed, 100.0 * blockedNanos / elapsed);
+    }
+}
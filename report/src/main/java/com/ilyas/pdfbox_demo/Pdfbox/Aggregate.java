@@ -0,0 +1,105 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Count, sum, min, max and average of the balances of a group of rows, with the nested groups below it. The root
+ * covers all rows and has no key; every level below groups by the next key of the aggregation.
+ */
+public final class Aggregate {
+    private final EmployeeColumn key;
+    private final Object value;
+    private final long rowCount;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final long firstRow;
+    private final long lastRow;
+    private final List<Aggregate> children;
+
+    Aggregate(EmployeeColumn key, Object value, long rowCount, double sum, double min, double max,
+              long firstRow, long lastRow, List<Aggregate> children) {
+        this.key = key;
+        this.value = value;
+        this.rowCount = rowCount;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Column this level groups by, {@code null} for the root.
+     */
+    public EmployeeColumn getKey() {
+        return key;
+    }
+
+    /**
+     * Value shared by the rows of the group: the {@link EmployeeStatus} for {@link EmployeeColumn#STATUS}, the
+     * string otherwise, {@code null} for the root.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Smallest balance, {@code NaN} without rows.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Largest balance, {@code NaN} without rows.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Mean balance, {@code NaN} without rows.
+     */
+    public double getAverage() {
+        return rowCount == 0 ? Double.NaN : sum / rowCount;
+    }
+
+    /**
+     * Index of the first row of the group in source order, -1 without rows.
+     */
+    public long getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Index of the last row of the group in source order, -1 without rows.
+     */
+    public long getLastRow() {
+        return lastRow;
+    }
+
+    /**
+     * Whether the rows of the group follow each other in the source, with no other rows in between.
+     */
+    public boolean isContiguous() {
+        return rowCount == 0 || lastRow - firstRow + 1 == rowCount;
+    }
+
+    /**
+     * Nested groups, in the order their first rows appear in the source.
+     */
+    public List<Aggregate> getChildren() {
+        return children;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+/**
+ * Width of the widest value of every column over all rows of a report, in points, from which the report sizes its
+ * columns. Measured with the cached glyph advances of a {@link TextMeasure}, which costs a small fraction of drawing
+ * the same rows, either in a pass of its own or in the aggregation pass the report is planned from.
+ */
+public final class ColumnWidths {
+
+    // By EmployeeColumn ordinal
+    private final float[] widths;
+
+    private ColumnWidths(float[] widths) {
+        this.widths = widths;
+    }
+
+    /**
+     * Reads every row once, measuring the texts with {@code measure} and the balances as {@code amounts} writes them.
+     */
+    public static ColumnWidths measure(EmployeeRowSource rowSource, TextMeasure measure, MoneyFormat amounts) {
+        var meter = new Meter(measure, amounts);
+        for (var rows = rowSource.open(); rows.hasNext(); ) {
+            meter.add(rows.next());
+        }
+        return meter.toColumnWidths();
+    }
+
+    /**
+     * Widths measured elsewhere, e.g. by the coordinator of a {@link ShardedReport}, in {@link EmployeeColumn} order.
+     */
+    static ColumnWidths of(float... widths) {
+        if (widths.length != EmployeeColumn.values().length) {
+            throw new IllegalArgumentException(String.format("Expected %d column widths, got %d", EmployeeColumn.values().length, widths.length));
+        }
+        return new ColumnWidths(widths.clone());
+    }
+
+    public float getWidth(EmployeeColumn column) {
+        return widths[column.ordinal()];
+    }
+
+    /**
+     * Widest values of the rows added so far, so a pass over the rows that is made anyway, e.g. the aggregation,
+     * can measure them too. Rows read in parallel are measured by one meter per thread, merged at the end.
+     */
+    static final class Meter {
+        private final TextMeasure measure;
+        private final MoneyFormat amounts;
+        private final float[] statusWidths = new float[EmployeeStatus.values().length];
+        private final byte[] scratch = new byte[MoneyFormat.MAX_LENGTH];
+        private float firstName;
+        private float lastName;
+        private float accountTypeName;
+        private float alias;
+        private float status;
+        private float balance;
+
+        Meter(TextMeasure measure, MoneyFormat amounts) {
+            this.measure = measure;
+            this.amounts = amounts;
+            for (var each : EmployeeStatus.values()) {
+                statusWidths[each.ordinal()] = measure.width(each.name());
+            }
+        }
+
+        void add(EmployeeRow row) {
+            firstName = Math.max(firstName, measure.width(row.getFirstName()));
+            lastName = Math.max(lastName, measure.width(row.getLastName()));
+            accountTypeName = Math.max(accountTypeName, measure.width(row.getAccountTypeName()));
+            alias = Math.max(alias, measure.width(row.getAlias()));
+            status = Math.max(status, statusWidths[row.getStatus().ordinal()]);
+            balance = Math.max(balance, measure.width(scratch, 0, amounts.format(row.getBalance(), scratch, 0)));
+        }
+
+        /**
+         * A meter measuring the same way, without rows yet.
+         */
+        Meter empty() {
+            return new Meter(measure, amounts);
+        }
+
+        void merge(Meter other) {
+            firstName = Math.max(firstName, other.firstName);
+            lastName = Math.max(lastName, other.lastName);
+            accountTypeName = Math.max(accountTypeName, other.accountTypeName);
+            alias = Math.max(alias, other.alias);
+            status = Math.max(status, other.status);
+            balance = Math.max(balance, other.balance);
+        }
+
+        ColumnWidths toColumnWidths() {
+            var widths = new float[EmployeeColumn.values().length];
+            widths[EmployeeColumn.FIRST_NAME.ordinal()] = firstName;
+            widths[EmployeeColumn.LAST_NAME.ordinal()] = lastName;
+            widths[EmployeeColumn.ACCOUNT_TYPE_NAME.ordinal()] = accountTypeName;
+            widths[EmployeeColumn.ALIAS.ordinal()] = alias;
+            widths[EmployeeColumn.STATUS.ordinal()] = status;
+            widths[EmployeeColumn.BALANCE.ordinal()] = balance;
+            return new ColumnWidths(widths);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.ilyas.pdfbox_demo.Pdfbox;
 
-public class Employee {
+public class Employee implements EmployeeRow {
     private final String firstName;
 
     private final String lastName;
@@ -22,26 +22,32 @@ public class Employee {
         this.balance = balance;
     }
 
+    @Override
     public String getFirstName() {
         return firstName;
     }
 
+    @Override
     public String getLastName() {
         return lastName;
     }
 
+    @Override
     public String getAccountTypeName() {
         return accountTypeName;
     }
 
+    @Override
     public String getAlias() {
         return alias;
     }
 
+    @Override
     public EmployeeStatus getStatus() {
         return status;
     }
 
+    @Override
     public double getBalance() {
         return balance;
     }
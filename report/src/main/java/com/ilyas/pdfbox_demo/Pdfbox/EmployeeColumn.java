@@ -0,0 +1,24 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+/**
+ * Columns the report table can show. A report lists the ones it wants in order; sub-totals and the grand total are
+ * printed in the {@link #BALANCE} column, or the last column without it, with their label in the column before.
+ */
+public enum EmployeeColumn {
+    FIRST_NAME("FIRST NAME"),
+    LAST_NAME("LAST NAME"),
+    ACCOUNT_TYPE_NAME("ACCOUNT TYPE NAME"),
+    ALIAS("ALIAS"),
+    STATUS("STATUS"),
+    BALANCE("BALANCE");
+
+    private final String title;
+
+    EmployeeColumn(String title) {
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
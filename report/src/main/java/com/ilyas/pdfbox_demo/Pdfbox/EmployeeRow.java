@@ -0,0 +1,20 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+/**
+ * Read access to one report row. Cursors of an {@link EmployeeRowSource} may hand out the same instance for every
+ * row, so a row is only valid until the cursor moves on.
+ */
+public interface EmployeeRow {
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getAccountTypeName();
+
+    String getAlias();
+
+    EmployeeStatus getStatus();
+
+    double getBalance();
+}
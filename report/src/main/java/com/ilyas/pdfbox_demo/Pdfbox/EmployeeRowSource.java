@@ -0,0 +1,187 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Source of report rows. Rows must be delivered grouped by {@link EmployeeStatus}, every status forming one
+ * contiguous run, so the report can be rendered from a cursor without holding the rows in memory.
+ * For a database this is simply a cursor over a query ordered by status.
+ */
+@FunctionalInterface
+public interface EmployeeRowSource {
+
+    /**
+     * Opens a new cursor positioned before the first row.
+     */
+    Iterator<EmployeeRow> open();
+
+    /**
+     * Opens a new cursor positioned before row {@code firstRow}. The default skips the rows in between, sources that
+     * can seek should override it.
+     */
+    default Iterator<EmployeeRow> open(long firstRow) {
+        var rows = open();
+        for (long i = 0; i < firstRow && rows.hasNext(); i++) {
+            rows.next();
+        }
+        return rows;
+    }
+
+    /**
+     * Number of rows, if the source knows it without reading them, otherwise -1. Sources returning it should also
+     * seek in {@link #open(long)}, since the aggregation then reads row ranges in parallel.
+     */
+    default long rowCount() {
+        return -1;
+    }
+
+    /**
+     * Size and sub-total of every status group, in the order the groups are delivered. The default aggregates the
+     * rows with the {@link ReportAggregator}; a database source would rather run a {@code GROUP BY} query.
+     */
+    default List<StatusGroup> summarizeByStatus() {
+        return StatusGroup.of(ReportAggregator.aggregate(this, List.of(EmployeeColumn.STATUS)));
+    }
+
+    /**
+     * Copies an in-memory list into an {@link EmployeeTable}, which orders it by status. The order inside each
+     * status is preserved.
+     */
+    static EmployeeRowSource of(List<? extends EmployeeRow> employees) {
+        return EmployeeTable.builder(employees.size()).addAll(employees).build();
+    }
+
+    /**
+     * Generates {@code rowCount} rows on the fly, spread evenly over the statuses. Nothing is kept in memory and
+     * the cursors reuse one row view, which makes it suitable to exercise very large reports.
+     */
+    static EmployeeRowSource synthetic(long rowCount) {
+        var weights = new int[EmployeeStatus.values().length];
+        Arrays.fill(weights, 1);
+        return synthetic(rowCount, weights);
+    }
+
+    /**
+     * Like {@link #synthetic(long)}, with the rows split over the statuses in proportion to {@code statusWeights},
+     * given in ordinal order. E.g. {@code 98, 1, 1} puts nearly all rows into the first group.
+     */
+    static EmployeeRowSource synthetic(long rowCount, int... statusWeights) {
+        final String[] firstNames = {"Karim", "Daamar", "Winsome", "Keron", "Nevado", "Rashun", "Tracey", "Akalia"};
+        final String[] lastNames = {"Douglas", "Levy", "Stewart", "Wisdom", "Watson", "Marshall", "Smart", "Edwards"};
+        final String[] accountTypes = {"CORPORATE", "PREFERRED"};
+        final EmployeeStatus[] statuses = EmployeeStatus.values();
+
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Negative row count: " + rowCount);
+        }
+        if (statusWeights.length != statuses.length) {
+            throw new IllegalArgumentException(String.format("Expected %d status weights, got %d", statuses.length, statusWeights.length));
+        }
+        long totalWeight = 0;
+        for (var weight : statusWeights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative status weight: " + weight);
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight == 0) {
+            throw new IllegalArgumentException("All status weights are 0");
+        }
+
+        // First row after every status group
+        final long[] groupEnds = new long[statuses.length];
+        long cumulativeWeight = 0;
+        for (int i = 0; i < statuses.length; i++) {
+            cumulativeWeight += statusWeights[i];
+            groupEnds[i] = ceilMultiplyDivide(rowCount, cumulativeWeight, totalWeight);
+        }
+
+        return new EmployeeRowSource() {
+            @Override
+            public Iterator<EmployeeRow> open() {
+                return open(0);
+            }
+
+            @Override
+            public long rowCount() {
+                return rowCount;
+            }
+
+            @Override
+            public Iterator<EmployeeRow> open(long firstRow) {
+                // The cursor is its own row view, so generating rows allocates nothing
+                return new SyntheticCursor(firstRow);
+            }
+
+            final class SyntheticCursor implements Iterator<EmployeeRow>, EmployeeRow {
+                private long index;
+                private int variant;
+                private int group;
+
+                private SyntheticCursor(long firstRow) {
+                    this.index = firstRow;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return index < rowCount;
+                }
+
+                @Override
+                public EmployeeRow next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    while (index >= groupEnds[group]) {
+                        group++;
+                    }
+                    variant = (int) (index % 8);
+                    index++;
+                    return this;
+                }
+
+                @Override
+                public String getFirstName() {
+                    return firstNames[variant];
+                }
+
+                @Override
+                public String getLastName() {
+                    return lastNames[variant];
+                }
+
+                @Override
+                public String getAccountTypeName() {
+                    return accountTypes[variant % 2];
+                }
+
+                @Override
+                public String getAlias() {
+                    return "";
+                }
+
+                @Override
+                public EmployeeStatus getStatus() {
+                    return statuses[group];
+                }
+
+                @Override
+                public double getBalance() {
+                    return 32 + variant;
+                }
+            }
+        };
+    }
+
+    // ceil(value * numerator / denominator) without overflowing for large row counts
+    private static long ceilMultiplyDivide(long value, long numerator, long denominator) {
+        return BigInteger.valueOf(value).multiply(BigInteger.valueOf(numerator))
+                .add(BigInteger.valueOf(denominator - 1))
+                .divide(BigInteger.valueOf(denominator))
+                .longValueExact();
+    }
+}
@@ -0,0 +1,221 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Column oriented, in-memory employee rows. Balances and statuses are kept in primitive arrays and the text columns
+ * as int codes into a dictionary shared by all of them, so millions of rows repeating the same names and account
+ * types cost a few bytes each instead of one object per row and field.
+ * <p>
+ * Rows are grouped by status with a counting sort over the status ordinals when the table is built. Cursors are
+ * views reading the arrays directly and hand out themselves as the current row, so iterating allocates nothing.
+ */
+public final class EmployeeTable implements EmployeeRowSource {
+
+    private static final EmployeeStatus[] STATUSES = EmployeeStatus.values();
+
+    private final int size;
+    private final String[] dictionary;
+    private final int[] firstNames;
+    private final int[] lastNames;
+    private final int[] accountTypeNames;
+    private final int[] aliases;
+    private final byte[] statuses;
+    private final double[] balances;
+
+    // Row indexes in status order
+    private final int[] order;
+
+    private EmployeeTable(Builder builder) {
+        this.size = builder.size;
+        this.dictionary = builder.dictionary.toArray(new String[0]);
+        this.firstNames = Arrays.copyOf(builder.firstNames, size);
+        this.lastNames = Arrays.copyOf(builder.lastNames, size);
+        this.accountTypeNames = Arrays.copyOf(builder.accountTypeNames, size);
+        this.aliases = Arrays.copyOf(builder.aliases, size);
+        this.statuses = Arrays.copyOf(builder.statuses, size);
+        this.balances = Arrays.copyOf(builder.balances, size);
+        this.order = sortByStatus(statuses);
+    }
+
+    public static Builder builder() {
+        return new Builder(1024);
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of distinct strings over all text columns.
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    @Override
+    public long rowCount() {
+        return size;
+    }
+
+    @Override
+    public Iterator<EmployeeRow> open() {
+        return new Cursor(0);
+    }
+
+    @Override
+    public Iterator<EmployeeRow> open(long firstRow) {
+        return new Cursor((int) Math.min(firstRow, size));
+    }
+
+    // Stable counting sort, groups come out in ordinal order
+    private static int[] sortByStatus(byte[] statuses) {
+        var starts = new int[STATUSES.length + 1];
+        for (var status : statuses) {
+            starts[status + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        var order = new int[statuses.length];
+        for (int row = 0; row < statuses.length; row++) {
+            order[starts[statuses[row]]++] = row;
+        }
+        return order;
+    }
+
+    private final class Cursor implements Iterator<EmployeeRow>, EmployeeRow {
+        private int position;
+        private int row;
+
+        private Cursor(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public EmployeeRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            row = order[position++];
+            return this;
+        }
+
+        @Override
+        public String getFirstName() {
+            return dictionary[firstNames[row]];
+        }
+
+        @Override
+        public String getLastName() {
+            return dictionary[lastNames[row]];
+        }
+
+        @Override
+        public String getAccountTypeName() {
+            return dictionary[accountTypeNames[row]];
+        }
+
+        @Override
+        public String getAlias() {
+            return dictionary[aliases[row]];
+        }
+
+        @Override
+        public EmployeeStatus getStatus() {
+            return STATUSES[statuses[row]];
+        }
+
+        @Override
+        public double getBalance() {
+            return balances[row];
+        }
+    }
+
+    public static final class Builder {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+
+        private int size;
+        private int[] firstNames;
+        private int[] lastNames;
+        private int[] accountTypeNames;
+        private int[] aliases;
+        private byte[] statuses;
+        private double[] balances;
+
+        private Builder(int expectedRows) {
+            var capacity = Math.max(expectedRows, 16);
+            firstNames = new int[capacity];
+            lastNames = new int[capacity];
+            accountTypeNames = new int[capacity];
+            aliases = new int[capacity];
+            statuses = new byte[capacity];
+            balances = new double[capacity];
+        }
+
+        public Builder add(String firstName, String lastName, String accountTypeName, String alias, EmployeeStatus status, double balance) {
+            if (size == balances.length) {
+                grow();
+            }
+            firstNames[size] = encode(firstName);
+            lastNames[size] = encode(lastName);
+            accountTypeNames[size] = encode(accountTypeName);
+            aliases[size] = encode(alias);
+            statuses[size] = (byte) status.ordinal();
+            balances[size] = balance;
+            size++;
+            return this;
+        }
+
+        public Builder add(EmployeeRow row) {
+            return add(row.getFirstName(), row.getLastName(), row.getAccountTypeName(), row.getAlias(), row.getStatus(), row.getBalance());
+        }
+
+        public Builder addAll(Iterable<? extends EmployeeRow> rows) {
+            for (var row : rows) {
+                add(row);
+            }
+            return this;
+        }
+
+        public EmployeeTable build() {
+            return new EmployeeTable(this);
+        }
+
+        private int encode(String value) {
+            return codes.computeIfAbsent(value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private void grow() {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Employee table is full");
+            }
+            var capacity = (int) Math.min(size * 2L, Integer.MAX_VALUE - 8);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            accountTypeNames = Arrays.copyOf(accountTypeNames, capacity);
+            aliases = Arrays.copyOf(aliases, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+        }
+    }
+}
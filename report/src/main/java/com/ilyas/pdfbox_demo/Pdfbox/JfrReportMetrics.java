@@ -0,0 +1,124 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Records the measurements as JDK Flight Recorder events, to see report generation next to the GC, allocations and
+ * threads of the same recording, e.g. {@code java -XX:StartFlightRecording=filename=reports.jfr ...}. Events are only
+ * filled in while a recording has them enabled.
+ * <p>
+ * The events are committed when a phase ends, so the time it took is in their {@code elapsed} field rather than in
+ * the event duration.
+ */
+public final class JfrReportMetrics implements ReportMetrics {
+
+    @Override
+    public void phaseCompleted(Phase phase, long nanos) {
+        var event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.elapsed = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void pagesRendered(int pages, long rows, long contentBytes, long nanos) {
+        var event = new PagesEvent();
+        if (event.isEnabled()) {
+            event.pages = pages;
+            event.rows = rows;
+            event.contentBytes = contentBytes;
+            event.elapsed = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void reportWritten(int pages, long rows, long outputBytes, long peakBufferedBytes, long nanos) {
+        var event = new ReportEvent();
+        if (event.isEnabled()) {
+            event.pages = pages;
+            event.rows = rows;
+            event.outputBytes = outputBytes;
+            event.peakBufferedBytes = peakBufferedBytes;
+            event.elapsed = nanos;
+            event.rowsPerSecond = perSecond(rows, nanos);
+            event.pagesPerSecond = perSecond(pages, nanos);
+            event.commit();
+        }
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    @Name("com.ilyas.pdfbox_demo.ReportPhase")
+    @Label("Report Phase")
+    @Category("PDF Reports")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("com.ilyas.pdfbox_demo.ReportPages")
+    @Label("Report Pages Rendered")
+    @Category("PDF Reports")
+    @StackTrace(false)
+    static final class PagesEvent extends Event {
+        @Label("Pages")
+        int pages;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Content Bytes")
+        @DataAmount
+        long contentBytes;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("com.ilyas.pdfbox_demo.ReportWritten")
+    @Label("Report Written")
+    @Category("PDF Reports")
+    @StackTrace(false)
+    static final class ReportEvent extends Event {
+        @Label("Pages")
+        int pages;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Output Size")
+        @DataAmount
+        long outputBytes;
+
+        @Label("Peak Buffered Pages")
+        @DataAmount
+        long peakBufferedBytes;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+
+        @Label("Rows per Second")
+        double rowsPerSecond;
+
+        @Label("Pages per Second")
+        double pagesPerSecond;
+    }
+}
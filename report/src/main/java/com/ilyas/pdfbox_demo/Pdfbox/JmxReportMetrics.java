@@ -0,0 +1,235 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Keeps counters and histograms of the measurements and publishes them as an MXBean once {@link #register()} is
+ * called, under {@value #OBJECT_NAME}.
+ * <p>
+ * Recording is a few atomic additions per chunk of pages. Histograms have 8 buckets per power of two, so
+ * percentiles are within 12.5% of the exact value.
+ */
+public final class JmxReportMetrics implements ReportMetrics, ReportMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.ilyas.pdfbox_demo:type=ReportMetrics";
+
+    private final AtomicLong reports = new AtomicLong();
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong outputBytes = new AtomicLong();
+    private final AtomicLong contentBytes = new AtomicLong();
+    private final LongAccumulator peakBufferedBytes = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    private final Histogram reportNanos = new Histogram();
+    private final Histogram chunkNanos = new Histogram();
+    private final Histogram contentBytesPerPage = new Histogram();
+
+    private volatile double lastRowsPerSecond;
+    private volatile double lastPagesPerSecond;
+
+    /**
+     * Publishes the counters in the platform MBean server.
+     */
+    public JmxReportMetrics register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName());
+        return this;
+    }
+
+    public void unregister() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName());
+    }
+
+    @Override
+    public void phaseCompleted(Phase phase, long nanos) {
+        phaseNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    @Override
+    public void pagesRendered(int pages, long rows, long contentBytes, long nanos) {
+        phaseNanos.addAndGet(Phase.RENDER.ordinal(), nanos);
+        this.contentBytes.addAndGet(contentBytes);
+        chunkNanos.record(nanos);
+        if (pages > 0) {
+            contentBytesPerPage.record(contentBytes / pages);
+        }
+    }
+
+    @Override
+    public void reportWritten(int pages, long rows, long outputBytes, long peakBufferedBytes, long nanos) {
+        reports.incrementAndGet();
+        this.pages.addAndGet(pages);
+        this.rows.addAndGet(rows);
+        this.outputBytes.addAndGet(outputBytes);
+        this.peakBufferedBytes.accumulate(peakBufferedBytes);
+        reportNanos.record(nanos);
+        if (nanos > 0) {
+            lastRowsPerSecond = rows * 1e9 / nanos;
+            lastPagesPerSecond = pages * 1e9 / nanos;
+        }
+    }
+
+    @Override
+    public long getReportCount() {
+        return reports.get();
+    }
+
+    @Override
+    public long getPageCount() {
+        return pages.get();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.get();
+    }
+
+    @Override
+    public long getOutputBytes() {
+        return outputBytes.get();
+    }
+
+    @Override
+    public long getContentBytes() {
+        return contentBytes.get();
+    }
+
+    @Override
+    public long getPeakBufferedBytes() {
+        return peakBufferedBytes.get();
+    }
+
+    @Override
+    public double getLastRowsPerSecond() {
+        return lastRowsPerSecond;
+    }
+
+    @Override
+    public double getLastPagesPerSecond() {
+        return lastPagesPerSecond;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMillis() {
+        var millis = new LinkedHashMap<String, Double>();
+        for (var phase : Phase.values()) {
+            millis.put(phase.name(), phaseNanos.get(phase.ordinal()) / 1e6);
+        }
+        return millis;
+    }
+
+    @Override
+    public Map<String, Double> getReportMillisPercentiles() {
+        return reportNanos.percentiles(1e-6);
+    }
+
+    @Override
+    public Map<String, Double> getChunkMillisPercentiles() {
+        return chunkNanos.percentiles(1e-6);
+    }
+
+    @Override
+    public Map<String, Double> getContentBytesPerPagePercentiles() {
+        return contentBytesPerPage.percentiles(1);
+    }
+
+    @Override
+    public void reset() {
+        reports.set(0);
+        pages.set(0);
+        rows.set(0);
+        outputBytes.set(0);
+        contentBytes.set(0);
+        peakBufferedBytes.reset();
+        for (int i = 0; i < phaseNanos.length(); i++) {
+            phaseNanos.set(i, 0);
+        }
+        reportNanos.reset();
+        chunkNanos.reset();
+        contentBytesPerPage.reset();
+        lastRowsPerSecond = 0;
+        lastPagesPerSecond = 0;
+    }
+
+    private static ObjectName objectName() {
+        try {
+            return new ObjectName(OBJECT_NAME);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Counts of non-negative values in buckets growing with the value: values below 8 have a bucket each, above
+     * that every power of two is split into 8 buckets.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final double[] PERCENTILES = {50, 90, 99};
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long value) {
+            value = Math.max(0, value);
+            counts.incrementAndGet(bucket(value));
+            count.incrementAndGet();
+            max.accumulate(value);
+        }
+
+        Map<String, Double> percentiles(double scale) {
+            var values = new LinkedHashMap<String, Double>();
+            var total = count.get();
+            for (var percentile : PERCENTILES) {
+                var rank = (long) Math.ceil(percentile / 100 * total);
+                long seen = 0;
+                var value = 0L;
+                for (int bucket = 0; bucket < counts.length() && total > 0; bucket++) {
+                    seen += counts.get(bucket);
+                    if (seen >= rank) {
+                        value = Math.min(highestValue(bucket), max.get());
+                        break;
+                    }
+                }
+                values.put("p" + (int) percentile, value * scale);
+            }
+            values.put("max", max.get() * scale);
+            return values;
+        }
+
+        private void reset() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+            count.set(0);
+            max.reset();
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            var exponent = 63 - Long.numberOfLeadingZeros(value);
+            var subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long highestValue(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            var shift = bucket / SUB_BUCKETS - 1;
+            var lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowest + (1L << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Fixed scale money formatting with the separators of a locale, written straight into a byte buffer. Amounts are
+ * rounded half up to the scale and grouped by thousands, e.g. {@code 1,234,567.50} for {@link Locale#US}.
+ * Rounding goes by the decimal value of the amount, the one {@link Double#toString} prints, so {@code 1.005}
+ * becomes {@code 1.01} although the nearest double is a little below it.
+ * <p>
+ * Unlike {@code NumberFormat} or {@code String.valueOf(double)} it allocates nothing, except for the rare amounts
+ * that are within a rounding error of a midpoint, and is safe to share between threads.
+ */
+public final class MoneyFormat {
+
+    /**
+     * Longest output: sign, 19 digits, 6 grouping separators, the decimal separator and the scale digits.
+     */
+    public static final int MAX_LENGTH = 1 + 19 + 6 + 1 + 18;
+
+    private final int scale;
+    private final long factor;
+    private final byte groupingSeparator;
+    private final byte decimalSeparator;
+    private final byte minusSign;
+
+    public MoneyFormat(Locale locale, int scale) {
+        if (scale < 0 || scale > 18) {
+            throw new IllegalArgumentException("Scale must be between 0 and 18: " + scale);
+        }
+        var symbols = DecimalFormatSymbols.getInstance(locale);
+        this.scale = scale;
+        this.factor = pow10(scale);
+        this.groupingSeparator = toSingleByte(symbols.getGroupingSeparator());
+        this.decimalSeparator = toSingleByte(symbols.getDecimalSeparator());
+        this.minusSign = toSingleByte(symbols.getMinusSign());
+    }
+
+    /**
+     * Writes {@code amount} into {@code target} from {@code offset} on, which needs room for {@link #MAX_LENGTH}
+     * bytes, and returns the offset after the last byte written.
+     */
+    public int format(double amount, byte[] target, int offset) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount) || Math.abs(amount) >= (double) Long.MAX_VALUE / factor) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        long scaled = round(Math.abs(amount));
+        if (amount < 0 && scaled != 0) {
+            target[offset++] = minusSign;
+        }
+
+        long units = scaled / factor;
+        int digits = 1;
+        for (long rest = units; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        for (long divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+            target[offset++] = (byte) ('0' + units / divisor % 10);
+            digits--;
+            if (digits > 0 && digits % 3 == 0) {
+                target[offset++] = groupingSeparator;
+            }
+        }
+
+        if (scale > 0) {
+            target[offset++] = decimalSeparator;
+            long fraction = scaled % factor;
+            for (long divisor = factor / 10; divisor > 0; divisor /= 10) {
+                target[offset++] = (byte) ('0' + fraction / divisor % 10);
+            }
+        }
+        return offset;
+    }
+
+    // Half up from the scaled binary value, unless that lands too close to a midpoint to tell which side it is on
+    private long round(double amount) {
+        var scaled = amount * factor;
+        if (Math.abs(scaled - Math.floor(scaled) - 0.5) > 4 * Math.ulp(scaled)) {
+            return Math.round(scaled);
+        }
+        return BigDecimal.valueOf(amount).setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convenience for callers outside the hot path.
+     */
+    public String format(double amount) {
+        var buffer = new byte[MAX_LENGTH];
+        return new String(buffer, 0, format(amount, buffer, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    // The report fonts use WinAnsiEncoding, which matches Latin-1 for these symbols; wider spaces become a no-break space
+    private static byte toSingleByte(char symbol) {
+        if (symbol <= 0xff) {
+            return (byte) symbol;
+        }
+        if (Character.isSpaceChar(symbol)) {
+            return (byte) 0xa0;
+        }
+        if (symbol == '\u2212') {
+            return '-';
+        }
+        throw new IllegalArgumentException("Unsupported number symbol: " + symbol);
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,341 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes content stream operators into memory, following the subset of {@code PDPageContentStream} the report uses.
+ * It never touches the {@code PDDocument}, so pages can be produced on any thread and attached afterwards. The bytes
+ * only depend on the calls made, which keeps parallel and sequential rendering identical.
+ * <p>
+ * Output is batched: consecutive texts share one text object and are placed with relative {@code Td} moves, the
+ * font and fill color are only set when they change, and all lines of a page are collected into a single path that
+ * is stroked once when the page is finished.
+ * <p>
+ * Operators, numbers and texts are written as bytes straight into reused buffers, so once the buffers have grown to
+ * the size of a page, writing rows allocates nothing.
+ */
+public class PageContentWriter {
+
+    // Same precision PDPageContentStream writes operands with
+    private static final int FRACTION_DIGITS = 5;
+    private static final long FRACTION_SCALE = 100_000L;
+
+    private static final byte[] BEGIN_TEXT = operator("BT");
+    private static final byte[] END_TEXT = operator("ET");
+    private static final byte[] SET_FONT = operator("Tf");
+    private static final byte[] MOVE_TEXT = operator("Td");
+    private static final byte[] SHOW_TEXT = operator("Tj");
+    private static final byte[] MOVE_TO = operator("m");
+    private static final byte[] LINE_TO = operator("l");
+    private static final byte[] STROKE = operator("S");
+    private static final byte[] RECTANGLE = operator("re");
+    private static final byte[] FILL = operator("f");
+    private static final byte[] NON_STROKING_RGB = operator("rg");
+    private static final byte[] DRAW_OBJECT = operator("Do");
+    private static final byte[] SAVE_STATE = operator("q");
+    private static final byte[] RESTORE_STATE = operator("Q");
+    private static final byte[] TRANSFORM = operator("cm");
+
+    private final Map<PDFont, byte[]> fontNames = new IdentityHashMap<>();
+    private final Map<COSName, byte[]> formNames = new HashMap<>();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+    private final ByteArrayOutputStream lines = new ByteArrayOutputStream(4096);
+    private final byte[] scratch = new byte[MoneyFormat.MAX_LENGTH];
+    private final Deflater deflater = new Deflater();
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(4096);
+    private final DeflaterOutputStream encoder = new DeflaterOutputStream(encoded, deflater);
+
+    // Graphics state already written to the page
+    private PDFont font;
+    private float fontSize;
+    private Color nonStrokingColor = Color.BLACK;
+
+    // Open text object and the start of its current line
+    private boolean inText;
+    private float lineX;
+    private float lineY;
+
+    /**
+     * @param fontNames resource names the fonts are registered under in the page resources
+     */
+    public PageContentWriter(Map<PDFont, COSName> fontNames) {
+        fontNames.forEach((font, name) -> this.fontNames.put(font, name(name)));
+    }
+
+    public void setFont(PDFont font, float fontSize) {
+        if (font == this.font && fontSize == this.fontSize) {
+            return;
+        }
+        var name = fontNames.get(font);
+        if (name == null) {
+            throw new IllegalArgumentException("Font is not registered in the page resources: " + font.getName());
+        }
+        this.font = font;
+        this.fontSize = fontSize;
+        out.write(name, 0, name.length);
+        writeOperand(fontSize);
+        out.write(SET_FONT, 0, SET_FONT.length);
+    }
+
+    /**
+     * Shows {@code text} with its baseline starting at ({@code x}, {@code y}) in the current font.
+     */
+    public void showTextAt(float x, float y, String text) throws IOException {
+        if (text.isEmpty()) {
+            return;
+        }
+        beginShowText(x, y);
+        appendText(text);
+        endShowText();
+    }
+
+    /**
+     * Starts a text at ({@code x}, {@code y}) whose content is given by the {@code append} calls that follow, up to
+     * {@link #endShowText()}. This builds texts from parts without creating strings.
+     */
+    public void beginShowText(float x, float y) {
+        if (font == null) {
+            throw new IllegalStateException("No font set");
+        }
+        if (!inText) {
+            out.write(BEGIN_TEXT, 0, BEGIN_TEXT.length);
+            inText = true;
+            lineX = 0;
+            lineY = 0;
+        }
+        writeOperand(x - lineX);
+        writeOperand(y - lineY);
+        out.write(MOVE_TEXT, 0, MOVE_TEXT.length);
+        lineX = x;
+        lineY = y;
+        out.write('(');
+    }
+
+    /**
+     * Appends {@code text} in the current font. Printable ASCII is written as it is, everything else goes through
+     * the font's encoding, which rejects characters the font can't show, control characters included.
+     *
+     * @throws IllegalArgumentException if the font has no glyph for a character
+     */
+    public void appendText(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c >= 0x20 && c < 0x7f) {
+                writeEscaped(c);
+            } else {
+                // PDFont keeps its encoding cache in plain maps
+                byte[] encoded;
+                synchronized (font) {
+                    encoded = font.encode(String.valueOf(c));
+                }
+                for (var b : encoded) {
+                    writeEscaped(b & 0xff);
+                }
+            }
+        }
+    }
+
+    public void appendNumber(long value) {
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        writeDigits(out, value);
+    }
+
+    public void appendAmount(double amount, MoneyFormat format) {
+        var length = format.format(amount, scratch, 0);
+        out.write(scratch, 0, length);
+    }
+
+    public void endShowText() {
+        out.write(')');
+        out.write(' ');
+        out.write(SHOW_TEXT, 0, SHOW_TEXT.length);
+    }
+
+    /**
+     * Adds a straight line to the page's line path, stroked by {@link #finish()}.
+     */
+    public void drawLine(float x1, float y1, float x2, float y2) {
+        writeOperand(lines, x1);
+        writeOperand(lines, y1);
+        lines.write(MOVE_TO, 0, MOVE_TO.length);
+        writeOperand(lines, x2);
+        writeOperand(lines, y2);
+        lines.write(LINE_TO, 0, LINE_TO.length);
+    }
+
+    public void fillRect(float x, float y, float width, float height, Color color) {
+        endText();
+        setNonStrokingColor(color);
+        writeOperand(x);
+        writeOperand(y);
+        writeOperand(width);
+        writeOperand(height);
+        out.write(RECTANGLE, 0, RECTANGLE.length);
+        out.write(FILL, 0, FILL.length);
+    }
+
+    /**
+     * Places the form XObject registered under {@code name} in the page resources.
+     */
+    public void drawForm(COSName name) {
+        endText();
+        var bytes = formNames.computeIfAbsent(name, PageContentWriter::name);
+        out.write(bytes, 0, bytes.length);
+        out.write(DRAW_OBJECT, 0, DRAW_OBJECT.length);
+    }
+
+    /**
+     * Places the form moved up by {@code translateY}, or down when negative.
+     */
+    public void drawForm(COSName name, float translateY) {
+        if (translateY == 0) {
+            drawForm(name);
+            return;
+        }
+        endText();
+        out.write(SAVE_STATE, 0, SAVE_STATE.length);
+        writeOperand(1);
+        writeOperand(0);
+        writeOperand(0);
+        writeOperand(1);
+        writeOperand(0);
+        writeOperand(translateY);
+        out.write(TRANSFORM, 0, TRANSFORM.length);
+        drawForm(name);
+        out.write(RESTORE_STATE, 0, RESTORE_STATE.length);
+    }
+
+    public void setNonStrokingColor(Color color) {
+        if (color.equals(nonStrokingColor)) {
+            return;
+        }
+        nonStrokingColor = color;
+        writeOperand(color.getRed() / 255f);
+        writeOperand(color.getGreen() / 255f);
+        writeOperand(color.getBlue() / 255f);
+        out.write(NON_STROKING_RGB, 0, NON_STROKING_RGB.length);
+    }
+
+    /**
+     * Closes the open text object and strokes the collected lines. Called before the content is taken.
+     */
+    public void finish() throws IOException {
+        endText();
+        if (lines.size() > 0) {
+            lines.writeTo(out);
+            lines.reset();
+            out.write(STROKE, 0, STROKE.length);
+        }
+    }
+
+    public int size() {
+        return out.size();
+    }
+
+    public void reset() {
+        out.reset();
+        lines.reset();
+        font = null;
+        fontSize = 0;
+        nonStrokingColor = Color.BLACK;
+        inText = false;
+    }
+
+    /**
+     * Finishes the page and returns its content, Flate encoded as PDPageContentStream stores it.
+     */
+    public byte[] toFlateEncoded() throws IOException {
+        finish();
+        encoded.reset();
+        deflater.reset();
+        out.writeTo(encoder);
+        encoder.finish();
+        return encoded.toByteArray();
+    }
+
+    private void endText() {
+        if (inText) {
+            out.write(END_TEXT, 0, END_TEXT.length);
+            inText = false;
+        }
+    }
+
+    private void writeEscaped(int b) {
+        if (b == '(' || b == ')' || b == '\\') {
+            out.write('\\');
+        }
+        out.write(b);
+    }
+
+    private void writeOperand(float value) {
+        writeOperand(out, value);
+    }
+
+    private static void writeOperand(ByteArrayOutputStream out, float value) {
+        long scaled = Math.round((double) value * FRACTION_SCALE);
+        if (scaled < 0) {
+            out.write('-');
+            scaled = -scaled;
+        }
+        writeDigits(out, scaled / FRACTION_SCALE);
+
+        long fraction = scaled % FRACTION_SCALE;
+        if (fraction != 0) {
+            out.write('.');
+            int digits = FRACTION_DIGITS;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            for (long divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+                out.write((int) ('0' + fraction / divisor % 10));
+            }
+        }
+        out.write(' ');
+    }
+
+    private static void writeDigits(ByteArrayOutputStream out, long value) {
+        for (long divisor = pow10(digitCount(value) - 1); divisor > 0; divisor /= 10) {
+            out.write((int) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    private static byte[] operator(String operator) {
+        return (operator + '\n').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] name(COSName name) {
+        return ('/' + name.getName() + ' ').getBytes(StandardCharsets.US_ASCII);
+    }
+}
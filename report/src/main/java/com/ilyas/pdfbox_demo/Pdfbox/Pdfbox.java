@@ -0,0 +1,1204 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDSimpleFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+public class Pdfbox {
+
+    // FOR FONT CONFIGURATION
+    private static final PDSimpleFont FONT = PDType1Font.HELVETICA_BOLD;
+    private static final float FONT_SIZE = 12f;
+    private static final float TABLE_FONT_SIZE = 8f;
+    private static final float HEIGHT_TABLE_STARTING_POINT = 750f;
+    private static final Float TABLE_MARGIN = 18f;
+    private static final float CELL_MARGIN = 5.0f;
+    private static final float ROW_HEIGHT = 22.0f;
+    private static final PDRectangle PAGE_SIZE = PDRectangle.A4;
+    private static final Color HEADER_COLOR = new Color(137, 207, 240);
+
+    // FONTS ARE REGISTERED UNDER FIXED NAMES, SO PAGES CAN BE RENDERED WITHOUT THE DOCUMENT
+    private static final COSName FONT_NAME = COSName.getPDFName("F1");
+    private static final COSName DATE_FONT_NAME = COSName.getPDFName("F2");
+    private static final Map<PDFont, COSName> PAGE_FONTS = Map.of(FONT, FONT_NAME, PDType1Font.HELVETICA, DATE_FONT_NAME);
+
+    // TEXTS ARE MEASURED WITH CACHED GLYPH ADVANCES, NOT THE FONT METRICS
+    private static final TextMeasure HEADER_MEASURE = TextMeasure.of(FONT, FONT_SIZE);
+    private static final TextMeasure CELL_MEASURE = TextMeasure.of(FONT, TABLE_FONT_SIZE);
+    private static final TextMeasure TITLE_MEASURE = TextMeasure.of(FONT, TABLE_FONT_SIZE - 1);
+
+    // NARROWEST A COLUMN GETS, ROOM FOR ONE CHARACTER AND THE ELLIPSIS OF A SHORTENED TEXT
+    private static final float MIN_COLUMN_WIDTH = CELL_MEASURE.width("W\u2026") + 2 * CELL_MARGIN;
+
+    // PAGE CHROME IS DRAWN ONCE PER DOCUMENT INTO FORM TEMPLATES AND PLACED ON EVERY PAGE
+    private static final COSName TABLE_HEADER_FORM = COSName.getPDFName("TableHeader");
+    private static final COSName COLUMN_RULES_FORM = COSName.getPDFName("ColumnRules");
+
+    // PAGES RENDERED TOGETHER BY ONE TASK
+    private static final int PAGES_PER_TASK = 64;
+
+
+    // STATIC VALUES
+    private static final String HEADER_TEXT = "Account Balance Report";
+    private static final String FOOTER_PAGE_TEXT = "Report - Page ";
+    private static final String FOOTER_PAGE_COUNT_TEXT = " of ";
+    private static final Map<EmployeeStatus, String> STATUS_LABELS = statusLabels("Status: %s");
+    private static final Map<EmployeeStatus, String> SUB_TOTAL_LABELS = statusLabels("%s Total");
+    private static final String GRAND_TOTAL_TEXT = "GRAND TOTAL";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    // AMOUNTS ARE PRINTED WITH TWO DECIMALS AND THE SEPARATORS OF THIS LOCALE
+    private static final MoneyFormat MONEY_FORMAT = new MoneyFormat(Locale.US, 2);
+    private static final MoneyFormat COUNT_FORMAT = new MoneyFormat(Locale.US, 0);
+    private static final String PDF_FILE_LOCATION = "/Users/ilyasdev/Desktop/test.pdf";
+
+    // DEFAULT COLUMNS, REPORTS CAN PICK THEIR OWN
+    private static final List<EmployeeColumn> COLUMNS = List.of(EmployeeColumn.values());
+    private static final List<EmployeeColumn> BY_STATUS = List.of(EmployeeColumn.STATUS);
+
+    // WHERE MEASUREMENTS GO, NOWHERE UNLESS SET
+    private static volatile ReportMetrics metrics = ReportMetrics.NOOP;
+
+    // SUMMARY ON PAGE 1
+    private static final String[] SUMMARY_COLUMNS = {"GROUP", "ROWS", "MIN", "AVERAGE", "MAX", "TOTAL"};
+    private static final String SUMMARY_TOTAL_TEXT = "ALL";
+
+
+    // MAIN METHOD
+    public static void main(String[] args) throws IOException {
+        generatePdfFile();
+    }
+
+    public static void generatePdfFile() throws IOException {
+        var start = System.nanoTime();
+        // Here replace this with the data coming from your Database
+        var rowSource = EmployeeRowSource.of(getEmployees());
+        metrics.phaseCompleted(ReportMetrics.Phase.FETCH, System.nanoTime() - start);
+        generatePdfFile(rowSource);
+    }
+
+    /**
+     * Sends the measurements of all reports generated from now on to {@code metrics}, {@link ReportMetrics#NOOP}
+     * turns measuring off again.
+     */
+    public static void setMetrics(ReportMetrics metrics) {
+        Pdfbox.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    public static ReportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public static void generatePdfFile(EmployeeRowSource rowSource) throws IOException {
+        generatePdfFile(rowSource, 1);
+    }
+
+    /**
+     * @param parallelism number of threads rendering pages, 1 renders everything on the calling thread
+     */
+    public static void generatePdfFile(EmployeeRowSource rowSource, int parallelism) throws IOException {
+        var layout = planReportTable(rowSource);
+        generatePdfFile(rowSource, layout, 1, layout.getPageCount(), parallelism);
+    }
+
+    /**
+     * Renders only pages {@code fromPage} to {@code toPage} of the report, e.g. for a preview.
+     */
+    public static void generatePdfFile(EmployeeRowSource rowSource, ReportLayout layout, int fromPage, int toPage) throws IOException {
+        generatePdfFile(rowSource, layout, fromPage, toPage, 1);
+    }
+
+    public static void generatePdfFile(EmployeeRowSource rowSource, ReportLayout layout, int fromPage, int toPage, int parallelism) throws IOException {
+        try (var out = Files.newOutputStream(Path.of(PDF_FILE_LOCATION))) {
+            // PAGES ARE WRITTEN AS THEY ARE DRAWN, THE HEADER COMES WITH PAGE 1
+            writePdf(rowSource, COLUMNS, layout, fromPage, toPage, parallelism, out);
+        }
+    }
+
+    /**
+     * Generates the whole report with the given columns and writes it to {@code out}, which is left open.
+     *
+     * @return the number of pages written
+     */
+    public static int writePdf(EmployeeRowSource rowSource, List<EmployeeColumn> columns, OutputStream out) throws IOException {
+        var layout = planReportTable(rowSource);
+        return writePdf(rowSource, columns, layout, 1, layout.getPageCount(), 1, out);
+    }
+
+    /**
+     * Progressive output: every chunk of pages is written to {@code out} as soon as it is drawn, and the fonts, forms
+     * and cross-reference table at the end. Memory stays at a few chunks of pages however long the report is, and with
+     * a parallelism above 1 writing overlaps with drawing the next chunks.
+     *
+     * @return the number of pages written
+     */
+    public static int writePdf(EmployeeRowSource rowSource, List<EmployeeColumn> columns, ReportLayout layout,
+                               int fromPage, int toPage, int parallelism, OutputStream out) throws IOException {
+        return writePdf(rowSource, columns, layout, LocalDate.now(), fromPage, toPage, parallelism, out);
+    }
+
+    /**
+     * Same as the progressive output above, with {@code reportDate} in the header instead of today, so the same rows
+     * give the same bytes on any day.
+     */
+    public static int writePdf(EmployeeRowSource rowSource, List<EmployeeColumn> columns, ReportLayout layout, LocalDate reportDate,
+                               int fromPage, int toPage, int parallelism, OutputStream out) throws IOException {
+        checkReport(columns, layout, fromPage, toPage);
+        var metrics = Pdfbox.metrics;
+        var start = System.nanoTime();
+        var table = tableColumns(columns, layout);
+        var writer = new ProgressivePdfWriter(out, PAGE_SIZE, PAGE_FONTS, drawForms(table, layout));
+        var peakBufferedBytes = drawChunks(rowSource, table, layout, reportDate, fromPage, toPage, parallelism, metrics, contents -> {
+            for (var content : contents) {
+                writer.addPage(content);
+            }
+        });
+
+        var finishStart = System.nanoTime();
+        writer.finish();
+        var end = System.nanoTime();
+        metrics.phaseCompleted(ReportMetrics.Phase.WRITE, end - finishStart);
+        metrics.reportWritten(writer.getPageCount(), layout.getRowCount(fromPage, toPage), writer.getBytesWritten(),
+                peakBufferedBytes, end - start);
+        return writer.getPageCount();
+    }
+
+    /**
+     * Incremental output: every status group starts on a new page, and only the groups whose rows changed since the
+     * last report written with {@code fragments} are rendered; the pages of the others are copied from there. The
+     * page header, the grand total and the footers are drawn again on every run, in a content stream of their own
+     * in front of the stored page, so the page numbers follow the groups that grew or shrank. The sub-totals and
+     * the grand total come from the status groups the rows are summarized into.
+     *
+     * @return the number of pages written
+     */
+    public static int writePdf(EmployeeRowSource rowSource, List<EmployeeColumn> columns, LocalDate reportDate,
+                               ReportFragments fragments, OutputStream out) throws IOException {
+        var metrics = Pdfbox.metrics;
+        var summarizeStart = System.nanoTime();
+        var meter = new ColumnWidths.Meter(CELL_MEASURE, MONEY_FORMAT);
+        var groups = summarizeByStatus(rowSource, meter);
+        var planStart = System.nanoTime();
+        var layout = ReportLayout.plan(groups, null, 0, HEIGHT_TABLE_STARTING_POINT - ROW_HEIGHT, TABLE_MARGIN + 60, ROW_HEIGHT, true)
+                .withColumnWidths(meter.toColumnWidths());
+        checkReport(columns, layout, 1, layout.getPageCount());
+        var table = tableColumns(columns, layout);
+        var fingerprintStart = System.nanoTime();
+        var fingerprints = fragments.fingerprints(rowSource, table, groups);
+        var start = System.nanoTime();
+        metrics.phaseCompleted(ReportMetrics.Phase.SUMMARIZE, planStart - summarizeStart);
+        metrics.phaseCompleted(ReportMetrics.Phase.PLAN, fingerprintStart - planStart);
+        metrics.phaseCompleted(ReportMetrics.Phase.FINGERPRINT, start - fingerprintStart);
+
+        var buffered = new ContentBuffer();
+        var writer = new ProgressivePdfWriter(out, PAGE_SIZE, PAGE_FONTS, drawForms(table, layout));
+        var overlay = new PageContentWriter(PAGE_FONTS);
+        var pages = layout.getPages();
+        int first = 0;
+        for (int group = 0; group < groups.size(); group++) {
+            var status = groups.get(group).getStatus();
+            int end = first;
+            while (end < pages.size() && pages.get(end).getLines().get(0).getType() != ReportLayout.LineType.GRAND_TOTAL
+                    && pages.get(end).getLines().get(0).getStatus() == status) {
+                end++;
+            }
+            writeGroupPages(rowSource, table, layout, pages.subList(first, end), fingerprints.get(group), fragments, reportDate,
+                    writer, overlay, buffered, metrics);
+            first = end;
+        }
+
+        // A grand total that didn't fit under the last group gets a page of its own
+        var finishStart = System.nanoTime();
+        for (var plannedPage : pages.subList(first, pages.size())) {
+            drawPage(overlay, Collections.emptyIterator(), table, plannedPage, layout, reportDate);
+            writer.addPage(overlay.toFlateEncoded());
+            overlay.reset();
+        }
+        writer.finish();
+        fragments.retain(fingerprints);
+        var end = System.nanoTime();
+        metrics.phaseCompleted(ReportMetrics.Phase.WRITE, end - finishStart);
+        metrics.reportWritten(writer.getPageCount(), layout.getRowCount(), writer.getBytesWritten(), buffered.getPeak(), end - start);
+        return writer.getPageCount();
+    }
+
+    private static void writeGroupPages(EmployeeRowSource rowSource, TableColumns table, ReportLayout layout,
+                                        List<ReportLayout.Page> groupPages, String fingerprint, ReportFragments fragments,
+                                        LocalDate reportDate, ProgressivePdfWriter writer, PageContentWriter overlay,
+                                        ContentBuffer buffered, ReportMetrics metrics) throws IOException {
+        var start = System.nanoTime();
+        try (var stored = fragments.read(fingerprint, groupPages.size())) {
+            if (stored != null) {
+                int copied = 0;
+                byte[] body;
+                while (copied < groupPages.size() && (body = stored.next()) != null) {
+                    buffered.add(body.length);
+                    drawPageOverlay(overlay, table, groupPages.get(copied), layout, reportDate);
+                    writer.addPage(overlay.toFlateEncoded(), body);
+                    overlay.reset();
+                    buffered.remove(body.length);
+                    copied++;
+                }
+                // Stored pages that ended early were deleted, the rest of the group is rendered and stored next run
+                long renderNanos = 0;
+                if (copied < groupPages.size()) {
+                    renderNanos = renderGroupPages(rowSource, table, layout, groupPages.subList(copied, groupPages.size()),
+                            null, reportDate, writer, overlay, buffered, metrics);
+                }
+                metrics.phaseCompleted(ReportMetrics.Phase.WRITE, System.nanoTime() - start - renderNanos);
+                return;
+            }
+        }
+
+        long renderNanos;
+        try (var fragment = fragments.write(fingerprint, groupPages.size())) {
+            renderNanos = renderGroupPages(rowSource, table, layout, groupPages, fragment, reportDate, writer, overlay, buffered, metrics);
+            fragment.commit();
+        }
+        metrics.phaseCompleted(ReportMetrics.Phase.WRITE, System.nanoTime() - start - renderNanos);
+    }
+
+    // Renders pages of one group into the writer, and into the fragment unless it is null; returns the render time
+    private static long renderGroupPages(EmployeeRowSource rowSource, TableColumns table, ReportLayout layout,
+                                         List<ReportLayout.Page> groupPages, ReportFragments.PageWriter fragment,
+                                         LocalDate reportDate, ProgressivePdfWriter writer, PageContentWriter overlay,
+                                         ContentBuffer buffered, ReportMetrics metrics) throws IOException {
+        long renderNanos = 0;
+        long contentBytes = 0;
+        long rowCount = 0;
+        var contentStream = new PageContentWriter(PAGE_FONTS);
+        var rows = rowSource.open(groupPages.get(0).getFirstRow());
+        for (var plannedPage : groupPages) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while rendering pages");
+            }
+            var renderStart = System.nanoTime();
+            drawPageBody(contentStream, rows, table, plannedPage, layout);
+            var body = contentStream.toFlateEncoded();
+            contentStream.reset();
+            renderNanos += System.nanoTime() - renderStart;
+            contentBytes += body.length;
+            rowCount += countRows(plannedPage);
+            buffered.add(body.length);
+            if (fragment != null) {
+                fragment.add(body);
+            }
+
+            // The overlay goes first, it leaves the graphics state as the body expects it to start
+            drawPageOverlay(overlay, table, plannedPage, layout, reportDate);
+            writer.addPage(overlay.toFlateEncoded(), body);
+            overlay.reset();
+            buffered.remove(body.length);
+        }
+        metrics.pagesRendered(groupPages.size(), rowCount, contentBytes, renderNanos);
+        return renderNanos;
+    }
+
+    /**
+     * Sharded output, worker side: draws the bodies of pages {@code fromPage} to {@code toPage}, i.e. the pages
+     * without the header, the grand total and the footer, and hands them to {@code sink} a chunk at a time. They only
+     * depend on the rows of those pages, so the shards of a report can be drawn in different processes.
+     */
+    static void drawPageBodies(EmployeeRowSource rowSource, List<EmployeeColumn> columns, ReportLayout layout,
+                               int fromPage, int toPage, PageSink sink) throws IOException {
+        checkReport(columns, layout, fromPage, toPage);
+        var metrics = Pdfbox.metrics;
+        var table = tableColumns(columns, layout);
+        var pages = layout.getPages().subList(fromPage - 1, toPage);
+        var contentStream = new PageContentWriter(PAGE_FONTS);
+        var rows = rowSource.open(pages.get(0).getFirstRow());
+
+        for (int start = 0; start < pages.size(); start += PAGES_PER_TASK) {
+            var renderStart = System.nanoTime();
+            var chunk = pages.subList(start, Math.min(start + PAGES_PER_TASK, pages.size()));
+            var bodies = new ArrayList<byte[]>(chunk.size());
+            for (var plannedPage : chunk) {
+                drawPageBody(contentStream, rows, table, plannedPage, layout);
+                bodies.add(contentStream.toFlateEncoded());
+                contentStream.reset();
+            }
+            var writeStart = System.nanoTime();
+            var rowCount = layout.getRowCount(fromPage + start, fromPage + start + chunk.size() - 1);
+            metrics.pagesRendered(chunk.size(), rowCount, contentBytes(bodies), writeStart - renderStart);
+            sink.addPages(bodies);
+            metrics.phaseCompleted(ReportMetrics.Phase.WRITE, System.nanoTime() - writeStart);
+        }
+    }
+
+    /**
+     * Sharded output, coordinator side: writes every page of {@code layout} with its body from {@code bodies}, drawn
+     * by {@link #drawPageBodies}, and draws the header, the grand total and the footer with the page numbers of the
+     * whole report in front of it. Only the page being written is in memory, and the fonts and the page chrome
+     * templates are written once however many shards the bodies come from.
+     *
+     * @return the number of pages written
+     */
+    static int writePdf(List<EmployeeColumn> columns, ReportLayout layout, LocalDate reportDate, PageBodies bodies,
+                        OutputStream out) throws IOException {
+        checkReport(columns, layout, 1, layout.getPageCount());
+        var metrics = Pdfbox.metrics;
+        var start = System.nanoTime();
+        var table = tableColumns(columns, layout);
+        var writer = new ProgressivePdfWriter(out, PAGE_SIZE, PAGE_FONTS, drawForms(table, layout));
+        var overlay = new PageContentWriter(PAGE_FONTS);
+        long peakBufferedBytes = 0;
+
+        for (var plannedPage : layout.getPages()) {
+            var body = bodies.next();
+            peakBufferedBytes = Math.max(peakBufferedBytes, body.length);
+            drawPageOverlay(overlay, table, plannedPage, layout, reportDate);
+            writer.addPage(overlay.toFlateEncoded(), body);
+            overlay.reset();
+        }
+        writer.finish();
+        var end = System.nanoTime();
+        metrics.phaseCompleted(ReportMetrics.Phase.WRITE, end - start);
+        metrics.reportWritten(writer.getPageCount(), layout.getRowCount(), writer.getBytesWritten(), peakBufferedBytes, end - start);
+        return writer.getPageCount();
+    }
+
+    /**
+     * Plans and writes the whole report of {@code job} to {@code out}.
+     *
+     * @return the number of pages written
+     */
+    static int writeReport(ReportJob job, LocalDate reportDate, OutputStream out) throws IOException {
+        var layout = job.getSummaryKeys() == null
+                ? planReportTable(job.getRowSource())
+                : planReportTable(job.getRowSource(), job.getSummaryKeys());
+        return writePdf(job.getRowSource(), job.getColumns(), layout, reportDate, 1, layout.getPageCount(), 1, out);
+    }
+
+    private static void drawHeader(PageContentWriter contentStream, LocalDate reportDate) throws IOException {
+        var pageWidth = PAGE_SIZE.getWidth();
+        var pageHeight = PAGE_SIZE.getHeight();
+        var heightCount = pageHeight - 40;
+        float tableWidth = pageWidth - 2.0f * TABLE_MARGIN;
+
+        // Text to display in the header
+        // Draw background color for title header
+        contentStream.fillRect(TABLE_MARGIN, heightCount - 8, tableWidth, CELL_MARGIN + 18, HEADER_COLOR);
+        contentStream.setNonStrokingColor(Color.BLACK);
+
+        contentStream.setFont(FONT, FONT_SIZE);
+        contentStream.showTextAt((pageWidth - HEADER_MEASURE.width(HEADER_TEXT)) / 2, heightCount, HEADER_TEXT);
+        heightCount -= 40;
+
+        // Display current date
+        contentStream.setFont(FONT, FONT_SIZE);
+        contentStream.showTextAt((pageWidth / 2) + FONT_SIZE * 4, heightCount, "Date: ");
+
+        // Position the date value
+        contentStream.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+        contentStream.showTextAt((pageWidth / 2) + FONT_SIZE * 10, heightCount, reportDate.format(DATE_FORMAT));
+    }
+
+    public static void drawReportTable(PDDocument document) throws IOException {
+        drawReportTable(document, EmployeeRowSource.of(getEmployees()));
+    }
+
+    public static void drawReportTable(PDDocument document, EmployeeRowSource rowSource) throws IOException {
+        var layout = planReportTable(rowSource);
+        drawReportTable(document, rowSource, layout, 1, layout.getPageCount(), 1);
+    }
+
+    /**
+     * Layout pass: decides what goes on every page without drawing anything. The rows are read once, grouping them
+     * by status and measuring the columns in the same pass.
+     */
+    public static ReportLayout planReportTable(EmployeeRowSource rowSource) {
+        return planReportTable(rowSource, Pdfbox.metrics);
+    }
+
+    static ReportLayout planReportTable(EmployeeRowSource rowSource, ReportMetrics metrics) {
+        var start = System.nanoTime();
+        var meter = new ColumnWidths.Meter(CELL_MEASURE, MONEY_FORMAT);
+        var groups = summarizeByStatus(rowSource, meter);
+        metrics.phaseCompleted(ReportMetrics.Phase.SUMMARIZE, System.nanoTime() - start);
+        return planReportTable(groups, metrics).withColumnWidths(meter.toColumnWidths());
+    }
+
+    /**
+     * Layout pass with a summary on page 1: the row count, minimum, average, maximum and total balance of the groups
+     * by {@code summaryKeys}, nested in that order, and of all rows. The summary, the status groups and the column
+     * widths come from one read of the rows.
+     */
+    public static ReportLayout planReportTable(EmployeeRowSource rowSource, List<EmployeeColumn> summaryKeys) {
+        var metrics = Pdfbox.metrics;
+        var start = System.nanoTime();
+        var meter = new ColumnWidths.Meter(CELL_MEASURE, MONEY_FORMAT);
+        // A summary by status already holds the sub-totals, otherwise the rows are grouped by status as well
+        var keyLists = !summaryKeys.isEmpty() && summaryKeys.get(0) == EmployeeColumn.STATUS ? List.of(summaryKeys) : List.of(summaryKeys, BY_STATUS);
+        var totals = ReportAggregator.aggregate(rowSource, keyLists, meter);
+        var summary = totals.get(0);
+        var groups = StatusGroup.of(totals.get(totals.size() - 1));
+        var planStart = System.nanoTime();
+        var layout = ReportLayout.plan(groups, summary, summaryHeight(summary), HEIGHT_TABLE_STARTING_POINT - ROW_HEIGHT, TABLE_MARGIN + 60, ROW_HEIGHT)
+                .withColumnWidths(meter.toColumnWidths());
+        metrics.phaseCompleted(ReportMetrics.Phase.SUMMARIZE, planStart - start);
+        metrics.phaseCompleted(ReportMetrics.Phase.PLAN, System.nanoTime() - planStart);
+        return layout;
+    }
+
+    /**
+     * Layout pass from status groups that are already known, e.g. from a {@code GROUP BY} query. The columns share the
+     * table width equally unless widths measured with {@link #measureColumns} are added to the layout.
+     */
+    public static ReportLayout planReportTable(List<StatusGroup> groups) {
+        return planReportTable(groups, Pdfbox.metrics);
+    }
+
+    private static ReportLayout planReportTable(List<StatusGroup> groups, ReportMetrics metrics) {
+        var start = System.nanoTime();
+        var layout = ReportLayout.plan(groups, HEIGHT_TABLE_STARTING_POINT - ROW_HEIGHT, TABLE_MARGIN + 60, ROW_HEIGHT);
+        metrics.phaseCompleted(ReportMetrics.Phase.PLAN, System.nanoTime() - start);
+        return layout;
+    }
+
+    // Status groups of the rows, measured with meter in the same read
+    private static List<StatusGroup> summarizeByStatus(EmployeeRowSource rowSource, ColumnWidths.Meter meter) {
+        return StatusGroup.of(ReportAggregator.aggregate(rowSource, List.of(BY_STATUS), meter).get(0));
+    }
+
+    /**
+     * Measuring pass: the widest value of every column, in the font and size the table is drawn in. Reads every row
+     * once, for layouts planned from status groups that are already known.
+     */
+    public static ColumnWidths measureColumns(EmployeeRowSource rowSource) {
+        return ColumnWidths.measure(rowSource, CELL_MEASURE, MONEY_FORMAT);
+    }
+
+    /**
+     * Render pass: appends pages {@code fromPage} to {@code toPage} of the layout to the document. Pages are rendered
+     * in chunks of {@link #PAGES_PER_TASK}; with a parallelism above 1 the chunks are rendered on that many threads,
+     * each reading its own rows, and attached in page order on the calling thread. Both modes give the same bytes.
+     * <p>
+     * The document keeps every page until it is saved, {@link #writePdf} streams them out instead.
+     */
+    public static void drawReportTable(PDDocument document, EmployeeRowSource rowSource, ReportLayout layout,
+                                       int fromPage, int toPage, int parallelism) throws IOException {
+        drawReportTable(document, rowSource, COLUMNS, layout, fromPage, toPage, parallelism);
+    }
+
+    /**
+     * Same as the render pass above, showing {@code columns} in that order instead of all columns.
+     */
+    public static void drawReportTable(PDDocument document, EmployeeRowSource rowSource, List<EmployeeColumn> columns,
+                                       ReportLayout layout, int fromPage, int toPage, int parallelism) throws IOException {
+        checkReport(columns, layout, fromPage, toPage);
+        var table = tableColumns(columns, layout);
+        var resources = createPageResources(document, drawForms(table, layout));
+        drawChunks(rowSource, table, layout, LocalDate.now(), fromPage, toPage, parallelism, Pdfbox.metrics,
+                contents -> addPages(document, resources, contents));
+    }
+
+    private static void checkReport(List<EmployeeColumn> columns, ReportLayout layout, int fromPage, int toPage) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("The report needs at least one column");
+        }
+        if (fromPage < 1 || toPage > layout.getPageCount() || fromPage > toPage) {
+            throw new IllegalArgumentException(String.format("Invalid page range %d-%d, the report has %d pages", fromPage, toPage, layout.getPageCount()));
+        }
+    }
+
+    /**
+     * Draws the pages in chunks and hands every chunk to {@code sink} in page order, on the calling thread.
+     *
+     * @return the most encoded page content that was drawn but not handed to the sink yet at any one time
+     */
+    private static long drawChunks(EmployeeRowSource rowSource, TableColumns table, ReportLayout layout, LocalDate reportDate,
+                                   int fromPage, int toPage, int parallelism, ReportMetrics metrics, PageSink sink) throws IOException {
+        var pages = layout.getPages().subList(fromPage - 1, toPage);
+        var buffered = new ContentBuffer();
+
+        if (parallelism <= 1) {
+            for (int start = 0; start < pages.size(); start += PAGES_PER_TASK) {
+                // Checked between chunks, so a cancelled report stops early
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Interrupted while rendering pages");
+                }
+                var chunk = pages.subList(start, Math.min(start + PAGES_PER_TASK, pages.size()));
+                writeChunk(sink, drawChunk(rowSource, table, chunk, fromPage + start, layout, reportDate, buffered, metrics), buffered, metrics);
+            }
+            return buffered.getPeak();
+        }
+
+        var executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            // Only a few chunks may wait for the calling thread, so rendered pages don't pile up in memory
+            var pending = new ArrayDeque<Future<List<byte[]>>>();
+            for (int start = 0; start < pages.size(); start += PAGES_PER_TASK) {
+                var chunk = pages.subList(start, Math.min(start + PAGES_PER_TASK, pages.size()));
+                var firstPage = fromPage + start;
+                pending.add(executor.submit(() -> drawChunk(rowSource, table, chunk, firstPage, layout, reportDate, buffered, metrics)));
+                if (pending.size() > 2 * parallelism) {
+                    writeChunk(sink, awaitPages(pending.remove()), buffered, metrics);
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeChunk(sink, awaitPages(pending.remove()), buffered, metrics);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return buffered.getPeak();
+    }
+
+    private static List<byte[]> drawChunk(EmployeeRowSource rowSource, TableColumns table, List<ReportLayout.Page> chunk,
+                                          int firstPage, ReportLayout layout, LocalDate reportDate, ContentBuffer buffered,
+                                          ReportMetrics metrics) throws IOException {
+        var start = System.nanoTime();
+        var contents = drawPages(rowSource, table, chunk, layout, reportDate);
+        var end = System.nanoTime();
+
+        var contentBytes = contentBytes(contents);
+        buffered.add(contentBytes);
+        metrics.pagesRendered(chunk.size(), layout.getRowCount(firstPage, firstPage + chunk.size() - 1), contentBytes, end - start);
+        return contents;
+    }
+
+    private static void writeChunk(PageSink sink, List<byte[]> contents, ContentBuffer buffered, ReportMetrics metrics) throws IOException {
+        var start = System.nanoTime();
+        sink.addPages(contents);
+        metrics.phaseCompleted(ReportMetrics.Phase.WRITE, System.nanoTime() - start);
+        buffered.remove(contentBytes(contents));
+    }
+
+    /**
+     * Render pass without a document: draws the content of every page of the layout and returns its total encoded
+     * size. Lets the benchmarks time the row drawing apart from the PDFBox page objects.
+     */
+    static long drawPageContents(EmployeeRowSource rowSource, ReportLayout layout) throws IOException {
+        long size = 0;
+        var table = tableColumns(COLUMNS, layout);
+        var pages = layout.getPages();
+        for (int start = 0; start < pages.size(); start += PAGES_PER_TASK) {
+            for (var content : drawPages(rowSource, table, pages.subList(start, Math.min(start + PAGES_PER_TASK, pages.size())), layout, LocalDate.now())) {
+                size += content.length;
+            }
+        }
+        return size;
+    }
+
+    private static List<byte[]> drawPages(EmployeeRowSource rowSource, TableColumns table, List<ReportLayout.Page> pages, ReportLayout layout,
+                                          LocalDate reportDate) throws IOException {
+        var contentStream = new PageContentWriter(PAGE_FONTS);
+        var rows = rowSource.open(pages.get(0).getFirstRow());
+        var contents = new ArrayList<byte[]>(pages.size());
+
+        for (var plannedPage : pages) {
+            drawPage(contentStream, rows, table, plannedPage, layout, reportDate);
+            contents.add(contentStream.toFlateEncoded());
+            contentStream.reset();
+        }
+        return contents;
+    }
+
+    private static void drawPage(PageContentWriter contentStream, Iterator<EmployeeRow> rows, TableColumns table,
+                                 ReportLayout.Page plannedPage, ReportLayout layout, LocalDate reportDate) throws IOException {
+        final float tableTop = HEIGHT_TABLE_STARTING_POINT - plannedPage.getTableOffset();
+
+        // PDF Header
+        if (plannedPage.getNumber() == 1) {
+            drawHeader(contentStream, reportDate);
+            if (layout.getSummary() != null) {
+                drawSummary(contentStream, layout.getSummary());
+            }
+        }
+
+        // Draw the header for the page with columns and everything
+        contentStream.drawForm(TABLE_HEADER_FORM, -plannedPage.getTableOffset());
+        drawLines(contentStream, rows, table, plannedPage.getLines());
+
+        // Draw columns, pages filled to capacity share the template
+        if (plannedPage.getTableBottom() == layout.getFullTableBottom() && plannedPage.getTableOffset() == 0) {
+            contentStream.drawForm(COLUMN_RULES_FORM);
+        } else {
+            drawColumns(contentStream, table, tableTop, plannedPage.getTableBottom());
+        }
+        // Draw the footer
+        createFooter(contentStream, PAGE_SIZE.getWidth(), plannedPage.getNumber(), layout.getPageCount());
+    }
+
+    private static void drawLines(PageContentWriter contentStream, Iterator<EmployeeRow> rows, TableColumns table,
+                                  List<ReportLayout.Line> lines) throws IOException {
+        final float tableWidth = PAGE_SIZE.getWidth() - 2.0f * TABLE_MARGIN;
+        final int amountColumn = amountColumn(table.getColumns());
+        final float textHorizontalPoint = TABLE_MARGIN + CELL_MARGIN;
+
+        for (var line : lines) {
+            float nexty = line.getTop() - ROW_HEIGHT;
+            float textVerticalPoint = line.getTop() - 15.0f;
+
+            switch (line.getType()) {
+                case STATUS:
+                    createStatusRow(line.getStatus(), contentStream, textHorizontalPoint, textVerticalPoint, textWidth(table, 0));
+                    contentStream.drawLine(TABLE_MARGIN, nexty, table.getLeft(1), nexty);
+                    break;
+                case ROWS:
+                    for (int i = 0; i < line.getRowCount(); i++) {
+                        final var employee = rows.next();
+                        if (employee.getStatus() != line.getStatus()) {
+                            throw new IllegalStateException("Rows changed between the layout and the render pass");
+                        }
+                        createEmployeeRow(employee, table, contentStream, textVerticalPoint);
+                        drawLineShape(contentStream, nexty, tableWidth);
+                        nexty -= ROW_HEIGHT;
+                        textVerticalPoint -= ROW_HEIGHT;
+                    }
+                    break;
+                case SUB_TOTAL:
+                    createSubTotal(SUB_TOTAL_LABELS.get(line.getStatus()), line.getAmount(), contentStream, textVerticalPoint, table, amountColumn);
+                    drawLineShape(contentStream, nexty, tableWidth);
+                    break;
+                case GRAND_TOTAL:
+                    drawGrandTotal(line.getAmount(), contentStream, textVerticalPoint, table, amountColumn);
+                    drawLineShape(contentStream, nexty, tableWidth);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The table of a page without the grand total. Apart from the header on page 1, this is all that depends on the
+     * rows of its group, so it can be kept and reused while other groups change.
+     */
+    private static void drawPageBody(PageContentWriter contentStream, Iterator<EmployeeRow> rows, TableColumns table,
+                                     ReportLayout.Page plannedPage, ReportLayout layout) throws IOException {
+        final float tableTop = HEIGHT_TABLE_STARTING_POINT - plannedPage.getTableOffset();
+        var lines = plannedPage.getLines();
+        var grandTotal = grandTotal(plannedPage);
+        var tableBottom = plannedPage.getTableBottom();
+        if (grandTotal != null) {
+            lines = lines.subList(0, lines.size() - 1);
+            tableBottom = grandTotal.getTop();
+        }
+
+        contentStream.drawForm(TABLE_HEADER_FORM, -plannedPage.getTableOffset());
+        drawLines(contentStream, rows, table, lines);
+        if (tableBottom == layout.getFullTableBottom() && plannedPage.getTableOffset() == 0) {
+            contentStream.drawForm(COLUMN_RULES_FORM);
+        } else {
+            drawColumns(contentStream, table, tableTop, tableBottom);
+        }
+    }
+
+    /**
+     * What a page adds to its body: the header on page 1, the grand total and the footer.
+     */
+    private static void drawPageOverlay(PageContentWriter contentStream, TableColumns table, ReportLayout.Page plannedPage,
+                                        ReportLayout layout, LocalDate reportDate) throws IOException {
+        if (plannedPage.getNumber() == 1) {
+            drawHeader(contentStream, reportDate);
+        }
+        var grandTotal = grandTotal(plannedPage);
+        if (grandTotal != null) {
+            drawLines(contentStream, Collections.emptyIterator(), table, List.of(grandTotal));
+            drawColumns(contentStream, table, grandTotal.getTop(), plannedPage.getTableBottom());
+        }
+        createFooter(contentStream, PAGE_SIZE.getWidth(), plannedPage.getNumber(), layout.getPageCount());
+    }
+
+    private static ReportLayout.Line grandTotal(ReportLayout.Page plannedPage) {
+        var lines = plannedPage.getLines();
+        var last = lines.get(lines.size() - 1);
+        return last.getType() == ReportLayout.LineType.GRAND_TOTAL ? last : null;
+    }
+
+    private static void drawTableHeader(PageContentWriter contentStream, TableColumns table) throws IOException {
+        final float tableWidth = PAGE_SIZE.getWidth() - 2.0f * TABLE_MARGIN;
+
+        drawLineShape(contentStream, HEIGHT_TABLE_STARTING_POINT, tableWidth);
+        createTableHeader(contentStream, table, HEIGHT_TABLE_STARTING_POINT - 15.0f, tableWidth);
+        drawLineShape(contentStream, HEIGHT_TABLE_STARTING_POINT - ROW_HEIGHT, tableWidth);
+    }
+
+    private static void drawColumns(PageContentWriter contentStream, TableColumns table, float tableTop, float tableBottom) throws IOException {
+        for (int i = 0; i < table.size() + 1; i++) {
+            drawColumnShape(contentStream, table.getLeft(i), HEIGHT_TABLE_STARTING_POINT - tableBottom, tableTop);
+        }
+    }
+
+    /**
+     * Summary table where the report table usually starts on page 1, the table follows below it.
+     */
+    private static void drawSummary(PageContentWriter contentStream, Aggregate summary) throws IOException {
+        final float tableWidth = PAGE_SIZE.getWidth() - 2.0f * TABLE_MARGIN;
+        final float colWidth = tableWidth / SUMMARY_COLUMNS.length;
+        float top = HEIGHT_TABLE_STARTING_POINT;
+
+        drawLineShape(contentStream, top, tableWidth);
+        contentStream.fillRect(TABLE_MARGIN, top - 15.0f - 8, tableWidth, CELL_MARGIN + 18, HEADER_COLOR);
+        contentStream.setNonStrokingColor(Color.BLACK);
+        contentStream.setFont(FONT, TABLE_FONT_SIZE - 1);
+        float textHorizontalPoint = TABLE_MARGIN + CELL_MARGIN;
+        for (var columnName : SUMMARY_COLUMNS) {
+            contentStream.showTextAt(textHorizontalPoint, top - 15.0f, TITLE_MEASURE.fit(columnName, colWidth - 2 * CELL_MARGIN));
+            textHorizontalPoint += colWidth;
+        }
+        top -= ROW_HEIGHT;
+        drawLineShape(contentStream, top, tableWidth);
+
+        top = createSummaryRows(contentStream, summary.getChildren(), 0, top, tableWidth, colWidth);
+        createSummaryRow(contentStream, SUMMARY_TOTAL_TEXT, 0, summary, top, colWidth);
+        top -= ROW_HEIGHT;
+        drawLineShape(contentStream, top, tableWidth);
+
+        float nextx = TABLE_MARGIN;
+        for (int i = 0; i < SUMMARY_COLUMNS.length + 1; i++) {
+            contentStream.drawLine(nextx, HEIGHT_TABLE_STARTING_POINT, nextx, top);
+            nextx += colWidth;
+        }
+    }
+
+    private static float createSummaryRows(PageContentWriter contentStream, List<Aggregate> groups, int level,
+                                           float top, float tableWidth, float colWidth) throws IOException {
+        for (var group : groups) {
+            createSummaryRow(contentStream, String.valueOf(group.getValue()), level, group, top, colWidth);
+            top -= ROW_HEIGHT;
+            drawLineShape(contentStream, top, tableWidth);
+            top = createSummaryRows(contentStream, group.getChildren(), level + 1, top, tableWidth, colWidth);
+        }
+        return top;
+    }
+
+    private static void createSummaryRow(PageContentWriter contentStream, String label, int level, Aggregate group,
+                                         float top, float colWidth) throws IOException {
+        final float textVerticalPoint = top - 15.0f;
+        float textHorizontalPoint = TABLE_MARGIN + CELL_MARGIN;
+
+        // Nested groups are indented, the labels are shortened to what is left of the column
+        final float indent = level * 2 * CELL_MARGIN;
+        contentStream.setFont(FONT, TABLE_FONT_SIZE);
+        contentStream.showTextAt(textHorizontalPoint + indent, textVerticalPoint, CELL_MEASURE.fit(label, colWidth - 2 * CELL_MARGIN - indent));
+        textHorizontalPoint += colWidth;
+        contentStream.beginShowText(textHorizontalPoint, textVerticalPoint);
+        contentStream.appendAmount(group.getRowCount(), COUNT_FORMAT);
+        contentStream.endShowText();
+        if (group.getRowCount() == 0) {
+            return;
+        }
+        for (var amount : new double[]{group.getMin(), group.getAverage(), group.getMax(), group.getSum()}) {
+            textHorizontalPoint += colWidth;
+            contentStream.beginShowText(textHorizontalPoint, textVerticalPoint);
+            contentStream.appendAmount(amount, MONEY_FORMAT);
+            contentStream.endShowText();
+        }
+    }
+
+    private static List<byte[]> awaitPages(Future<List<byte[]>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering pages");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Content of the page chrome templates, Flate encoded, by resource name.
+     */
+    private static Map<COSName, byte[]> drawForms(TableColumns table, ReportLayout layout) throws IOException {
+        var forms = new LinkedHashMap<COSName, byte[]>();
+        var contentStream = new PageContentWriter(PAGE_FONTS);
+
+        drawTableHeader(contentStream, table);
+        forms.put(TABLE_HEADER_FORM, contentStream.toFlateEncoded());
+        contentStream.reset();
+
+        drawColumns(contentStream, table, HEIGHT_TABLE_STARTING_POINT, layout.getFullTableBottom());
+        forms.put(COLUMN_RULES_FORM, contentStream.toFlateEncoded());
+        return forms;
+    }
+
+    /**
+     * Resources shared by all pages of the document: the fonts and the page chrome templates.
+     */
+    private static PDResources createPageResources(PDDocument document, Map<COSName, byte[]> forms) throws IOException {
+        var resources = createFontResources();
+        for (var form : forms.entrySet()) {
+            resources.put(form.getKey(), createForm(document, form.getValue()));
+        }
+        return resources;
+    }
+
+    private static PDResources createFontResources() {
+        var resources = new PDResources();
+        resources.put(FONT_NAME, FONT);
+        resources.put(DATE_FONT_NAME, PDType1Font.HELVETICA);
+        return resources;
+    }
+
+    private static PDFormXObject createForm(PDDocument document, byte[] content) throws IOException {
+        var form = new PDFormXObject(document);
+        writeFlateEncoded(form.getCOSObject(), content);
+        form.setBBox(new PDRectangle(PAGE_SIZE.getWidth(), PAGE_SIZE.getHeight()));
+        form.setResources(createFontResources());
+        return form;
+    }
+
+    private static void addPages(PDDocument document, PDResources resources, List<byte[]> contents) throws IOException {
+        for (var content : contents) {
+            var stream = document.getDocument().createCOSStream();
+            writeFlateEncoded(stream, content);
+
+            var page = new PDPage(PAGE_SIZE);
+            page.setContents(new PDStream(stream));
+            page.setResources(resources);
+            document.addPage(page);
+        }
+    }
+
+    private static void writeFlateEncoded(COSStream stream, byte[] content) throws IOException {
+        try (var out = stream.createRawOutputStream()) {
+            out.write(content);
+        }
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+    }
+
+    // Header, one row per group at every level, the row for all rows and a blank row before the report table
+    private static float summaryHeight(Aggregate summary) {
+        return ROW_HEIGHT * (3 + countGroups(summary.getChildren()));
+    }
+
+    private static int countGroups(List<Aggregate> groups) {
+        int count = groups.size();
+        for (var group : groups) {
+            count += countGroups(group.getChildren());
+        }
+        return count;
+    }
+
+    private static int countRows(ReportLayout.Page plannedPage) {
+        int rows = 0;
+        for (var line : plannedPage.getLines()) {
+            if (line.getType() == ReportLayout.LineType.ROWS) {
+                rows += line.getRowCount();
+            }
+        }
+        return rows;
+    }
+
+    private static long contentBytes(List<byte[]> contents) {
+        long bytes = 0;
+        for (var content : contents) {
+            bytes += content.length;
+        }
+        return bytes;
+    }
+
+    // Totals go under the balances, or into the last column when the report has none
+    private static int amountColumn(List<EmployeeColumn> columns) {
+        var balance = columns.indexOf(EmployeeColumn.BALANCE);
+        return balance >= 0 ? balance : columns.size() - 1;
+    }
+
+    /**
+     * Without measured widths the columns share the table equally. Otherwise every column gets the width of its
+     * widest text, and the room left is shared out equally; when the texts don't fit, the widest columns are
+     * narrowed to a common width and their texts shortened. The column with the amounts keeps its width.
+     */
+    private static TableColumns tableColumns(List<EmployeeColumn> columns, ReportLayout layout) {
+        final float tableWidth = PAGE_SIZE.getWidth() - 2.0f * TABLE_MARGIN;
+        var widths = new float[columns.size()];
+        var measured = layout.getColumnWidths();
+        if (measured == null) {
+            Arrays.fill(widths, tableWidth / columns.size());
+            return new TableColumns(columns, TABLE_MARGIN, widths);
+        }
+
+        final int amountColumn = amountColumn(columns);
+        final int labelColumn = Math.max(amountColumn - 1, 0);
+        for (int i = 0; i < widths.length; i++) {
+            var column = columns.get(i);
+            widths[i] = Math.max(measured.getWidth(column), TITLE_MEASURE.width(column.getTitle()));
+        }
+        // Status rows are labelled in the first column, the totals left of the amounts
+        for (var status : EmployeeStatus.values()) {
+            widths[0] = Math.max(widths[0], CELL_MEASURE.width(STATUS_LABELS.get(status)));
+            widths[labelColumn] = Math.max(widths[labelColumn], CELL_MEASURE.width(SUB_TOTAL_LABELS.get(status)));
+        }
+        widths[labelColumn] = Math.max(widths[labelColumn], CELL_MEASURE.width(GRAND_TOTAL_TEXT));
+        widths[amountColumn] = Math.max(widths[amountColumn], totalsWidth(layout));
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] += 2 * CELL_MARGIN;
+        }
+        fitWidths(widths, amountColumn, tableWidth);
+        return new TableColumns(columns, TABLE_MARGIN, widths);
+    }
+
+    // Widest sub-total or grand total as it is drawn, from the groups rather than the pages they end on
+    private static float totalsWidth(ReportLayout layout) {
+        var scratch = new byte[MoneyFormat.MAX_LENGTH];
+        float width = 0;
+        // Summed in the order the layout sums them, so the grand total is the amount on the page
+        double grandTotal = 0;
+        for (var group : layout.getGroups()) {
+            width = Math.max(width, CELL_MEASURE.width(scratch, 0, MONEY_FORMAT.format(group.getSubTotal(), scratch, 0)));
+            grandTotal += group.getSubTotal();
+        }
+        return Math.max(width, CELL_MEASURE.width(scratch, 0, MONEY_FORMAT.format(grandTotal, scratch, 0)));
+    }
+
+    /**
+     * Fits {@code widths} into {@code tableWidth}. Spare room is shared out equally; otherwise the widest columns other
+     * than {@code fixedColumn} are narrowed to a common width, but not below {@link #MIN_COLUMN_WIDTH}. Only when the
+     * fixed column leaves less than that for the others does it give up room to them.
+     */
+    static void fitWidths(float[] widths, int fixedColumn, float tableWidth) {
+        if (widths.length == 1) {
+            widths[0] = tableWidth;
+            return;
+        }
+        float total = 0;
+        for (var width : widths) {
+            total += width;
+        }
+        if (total <= tableWidth) {
+            var slack = (tableWidth - total) / widths.length;
+            for (int i = 0; i < widths.length; i++) {
+                widths[i] += slack;
+            }
+            return;
+        }
+
+        // Lowest common width of the other columns, above which they add up to the room they have
+        var others = new float[widths.length - 1];
+        for (int i = 0, j = 0; i < widths.length; i++) {
+            if (i != fixedColumn) {
+                others[j++] = widths[i];
+            }
+        }
+        Arrays.sort(others);
+        var minimum = Math.min(MIN_COLUMN_WIDTH, tableWidth / widths.length);
+        var remaining = Math.max(tableWidth - widths[fixedColumn], minimum * others.length);
+        var cap = Float.MAX_VALUE;
+        for (int i = 0; i < others.length; i++) {
+            if (others[i] * (others.length - i) > remaining) {
+                cap = remaining / (others.length - i);
+                break;
+            }
+            remaining -= others[i];
+        }
+        float othersWidth = 0;
+        for (int i = 0; i < widths.length; i++) {
+            if (i != fixedColumn) {
+                widths[i] = Math.min(widths[i], cap);
+                othersWidth += widths[i];
+            }
+        }
+        widths[fixedColumn] = Math.min(widths[fixedColumn], tableWidth - othersWidth);
+    }
+
+    private static Map<EmployeeStatus, String> statusLabels(String format) {
+        var labels = new EnumMap<EmployeeStatus, String>(EmployeeStatus.class);
+        for (var status : EmployeeStatus.values()) {
+            labels.put(status, String.format(format, status));
+        }
+        return labels;
+    }
+
+    // Room for text in a column, inside the cell margins
+    private static float textWidth(TableColumns table, int column) {
+        return table.getWidth(column) - 2 * CELL_MARGIN;
+    }
+
+    private static void drawLineShape(PageContentWriter contentStream, float nexty, float tableWidth) throws IOException {
+        contentStream.drawLine(TABLE_MARGIN, nexty, TABLE_MARGIN + tableWidth, nexty);
+    }
+
+    private static void drawColumnShape(PageContentWriter contentStream, float nextx, float tableHeight, float startingFrom) throws IOException {
+        contentStream.drawLine(nextx, startingFrom, nextx, HEIGHT_TABLE_STARTING_POINT - tableHeight);
+    }
+
+    private static void createStatusRow(EmployeeStatus status, PageContentWriter contentStream, float textHorizontalPoint, float textVerticalPoint,
+                                        float textWidth) throws IOException {
+        contentStream.setFont(FONT, TABLE_FONT_SIZE);
+        contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(STATUS_LABELS.get(status), textWidth));
+    }
+
+    private static void drawGrandTotal(double totalAmount, PageContentWriter contentStream, float textVerticalPoint, TableColumns table, int amountColumn) throws IOException {
+        var labelColumn = Math.max(amountColumn - 1, 0);
+        var textHorizontalPoint = table.getLeft(labelColumn) + CELL_MARGIN;
+
+        contentStream.fillRect(textHorizontalPoint-5, textVerticalPoint - 6, table.getLeft(Math.min(labelColumn + 2, table.size())) - table.getLeft(labelColumn),
+                ROW_HEIGHT-2, HEADER_COLOR);
+        contentStream.setNonStrokingColor(Color.BLACK);
+
+        contentStream.setFont(FONT, TABLE_FONT_SIZE);
+        contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(GRAND_TOTAL_TEXT, textWidth(table, labelColumn)));
+        textHorizontalPoint = table.getLeft(labelColumn + 1) + CELL_MARGIN;
+        contentStream.beginShowText(textHorizontalPoint, textVerticalPoint);
+        contentStream.appendAmount(totalAmount, MONEY_FORMAT);
+        contentStream.endShowText();
+    }
+
+
+    private static void createEmployeeRow(EmployeeRow employee, TableColumns table, PageContentWriter contentStream,
+                                          float textVerticalPoint) throws IOException {
+        contentStream.setFont(FONT, TABLE_FONT_SIZE);
+        for (int i = 0; i < table.size(); i++) {
+            // Amounts are never shortened, the column is sized for the widest of them
+            final float textHorizontalPoint = table.getLeft(i) + CELL_MARGIN;
+            final float textWidth = textWidth(table, i);
+            switch (table.get(i)) {
+                case FIRST_NAME:
+                    contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(employee.getFirstName(), textWidth));
+                    break;
+                case LAST_NAME:
+                    contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(employee.getLastName(), textWidth));
+                    break;
+                case ACCOUNT_TYPE_NAME:
+                    contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(employee.getAccountTypeName(), textWidth));
+                    break;
+                case ALIAS:
+                    contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(employee.getAlias(), textWidth));
+                    break;
+                case STATUS:
+                    contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(employee.getStatus().name(), textWidth));
+                    break;
+                case BALANCE:
+                    contentStream.beginShowText(textHorizontalPoint, textVerticalPoint);
+                    contentStream.appendAmount(employee.getBalance(), MONEY_FORMAT);
+                    contentStream.endShowText();
+                    break;
+            }
+        }
+    }
+
+
+    private static void createSubTotal(String columnName, double amount, PageContentWriter contentStream, float textVerticalPoint, TableColumns table, int amountColumn) throws IOException {
+
+        var labelColumn = Math.max(amountColumn - 1, 0);
+        var textHorizontalPoint = table.getLeft(labelColumn) + CELL_MARGIN;
+
+        contentStream.fillRect(textHorizontalPoint-5, textVerticalPoint - 6, table.getLeft(Math.min(labelColumn + 2, table.size())) - table.getLeft(labelColumn),
+                ROW_HEIGHT-2, HEADER_COLOR);
+        contentStream.setNonStrokingColor(Color.BLACK);
+
+        contentStream.setFont(FONT, TABLE_FONT_SIZE);
+        contentStream.showTextAt(textHorizontalPoint, textVerticalPoint, CELL_MEASURE.fit(columnName, textWidth(table, labelColumn)));
+        textHorizontalPoint = table.getLeft(labelColumn + 1) + CELL_MARGIN;
+        contentStream.beginShowText(textHorizontalPoint, textVerticalPoint);
+        contentStream.appendAmount(amount, MONEY_FORMAT);
+        contentStream.endShowText();
+    }
+
+    private static void createFooter(PageContentWriter contentStream, float pageWidth, int count, int total) throws IOException {
+        final float textWidth = CELL_MEASURE.width(FOOTER_PAGE_TEXT) + CELL_MEASURE.width(count)
+                + CELL_MEASURE.width(FOOTER_PAGE_COUNT_TEXT) + CELL_MEASURE.width(total);
+        contentStream.setFont(FONT, TABLE_FONT_SIZE);
+        contentStream.beginShowText((pageWidth - textWidth) / 2, TABLE_MARGIN);
+        contentStream.appendText(FOOTER_PAGE_TEXT);
+        contentStream.appendNumber(count);
+        contentStream.appendText(FOOTER_PAGE_COUNT_TEXT);
+        contentStream.appendNumber(total);
+        contentStream.endShowText();
+    }
+
+
+    private static void createTableHeader(PageContentWriter contentStream, TableColumns table, float textVerticalPoint,
+                                          float tableWidth) throws IOException {
+        contentStream.fillRect(TABLE_MARGIN, textVerticalPoint - 8, tableWidth, CELL_MARGIN + 18, HEADER_COLOR);
+        contentStream.setNonStrokingColor(Color.BLACK);
+
+        // Create table columns
+        for (int i = 0; i < table.size(); i++) {
+            contentStream.setFont(FONT, TABLE_FONT_SIZE - 1);
+            contentStream.showTextAt(table.getLeft(i) + CELL_MARGIN, textVerticalPoint, TITLE_MEASURE.fit(table.get(i).getTitle(), textWidth(table, i)));
+        }
+    }
+
+
+    private static List<Employee> getEmployees() {
+        return List.of(new Employee("Karim", "Douglas", "CORPORATE", "", EmployeeStatus.ACTIVE, 44), new Employee("Daamar", "Levy", "CORPORATE", "", EmployeeStatus.ACTIVE, 44), new Employee("Winsome", "Stewart", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Keron", "Wisdom", "CORPORATE", "", EmployeeStatus.ACTIVE, 54), new Employee("Nevado", "Stewart", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Rashun", "Watson", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Tracey", "Marshall", "CORPORATE", "", EmployeeStatus.ACTIVE, 32), new Employee("LLOYD-ANN", "Hylton", "PREFERED", "", EmployeeStatus.PENDING, 32), new Employee("Waid", "Daley", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Nevado", "Stewart", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Rashun", "Watson", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Tracey", "Marshall", "CORPORATE", "", EmployeeStatus.ACTIVE, 32), new Employee("LLOYD-ANN", "Hylton", "PREFERED", "", EmployeeStatus.PENDING, 32), new Employee("Waid", "Daley", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Nevado", "Stewart", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Rashun", "Watson", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Tracey", "Marshall", "CORPORATE", "", EmployeeStatus.ACTIVE, 32), new Employee("LLOYD-ANN", "Hylton", "PREFERED", "", EmployeeStatus.PENDING, 32), new Employee("Waid", "Daley", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Nevado", "Stewart", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Rashun", "Watson", "CORPORATE", "", EmployeeStatus.PENDING, 32), new Employee("Tracey", "Marshall", "CORPORATE", "", EmployeeStatus.ACTIVE, 32), new Employee("LLOYD-ANN", "Hylton", "PREFERED", "", EmployeeStatus.PENDING, 32), new Employee("Waid", "Daley", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.INACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.INACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32),
+                new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Akalia", "Smart", "PREFERRED", "", EmployeeStatus.ACTIVE, 32), new Employee("Adisha", "Edwards", "PREFERRED", "", EmployeeStatus.ACTIVE, 32));
+    }
+
+    /**
+     * Receives the drawn pages, Flate encoded, one chunk at a time.
+     */
+    @FunctionalInterface
+    interface PageSink {
+        void addPages(List<byte[]> contents) throws IOException;
+    }
+
+    /**
+     * Hands out page bodies drawn elsewhere, Flate encoded, in page order.
+     */
+    @FunctionalInterface
+    interface PageBodies {
+        byte[] next() throws IOException;
+    }
+
+    /**
+     * Encoded page content drawn but not written yet, and the most there was at any one time.
+     */
+    private static final class ContentBuffer {
+        private final AtomicLong bytes = new AtomicLong();
+        private final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+
+        private void add(long size) {
+            peak.accumulate(bytes.addAndGet(size));
+        }
+
+        private void remove(long size) {
+            bytes.addAndGet(-size);
+        }
+
+        private long getPeak() {
+            return peak.get();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes a PDF to a stream page by page, without a {@code PDDocument}. Every page is written as soon as it is added,
+ * so only the byte offsets of the objects stay in memory: 8 bytes per object plus 4 bytes per page for the page
+ * tree, i.e. 20 bytes for a page with one content stream and 28 with two. The objects all pages share, i.e. the
+ * fonts, the form templates and the page tree, are written by {@link #finish()} together with the cross-reference
+ * table and the trailer.
+ * <p>
+ * All pages share one resource dictionary with the given fonts and forms. Fonts must be fully described by names,
+ * as the standard 14 fonts are, since nothing is embedded.
+ */
+public class ProgressivePdfWriter {
+
+    private static final byte[] HEADER = "%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    // Shared objects are numbered first, pages follow as their content streams and the page object
+    private static final int CATALOG = 1;
+    private static final int PAGE_TREE = 2;
+    private static final int PAGE_RESOURCES = 3;
+    private static final int FORM_RESOURCES = 4;
+    private static final int FIRST_SHARED_OBJECT = 5;
+
+    private final CountingOutputStream out;
+    private final String mediaBox;
+    private final Map<COSName, PDFont> fonts = new TreeMap<>(Comparator.comparing(COSName::getName));
+    private final Map<COSName, byte[]> forms = new TreeMap<>(Comparator.comparing(COSName::getName));
+    private final int firstPageObject;
+
+    // Offset of every object by its number, 0 is the free list head
+    private long[] offsets = new long[64];
+    private int nextObject;
+    private int[] pageObjects = new int[64];
+    private int pageCount;
+    private boolean finished;
+
+    /**
+     * Writes the file header right away. {@code out} is buffered here and left open by {@link #finish()}.
+     *
+     * @param fonts resource names the page contents use for the fonts
+     * @param forms Flate encoded form XObjects by resource name, drawn with the page size as bounding box
+     */
+    public ProgressivePdfWriter(OutputStream out, PDRectangle pageSize, Map<PDFont, COSName> fonts, Map<COSName, byte[]> forms) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.mediaBox = String.format("[%s %s %s %s]", number(pageSize.getLowerLeftX()), number(pageSize.getLowerLeftY()),
+                number(pageSize.getUpperRightX()), number(pageSize.getUpperRightY()));
+        fonts.forEach((font, name) -> this.fonts.put(name, font));
+        this.forms.putAll(forms);
+        this.firstPageObject = FIRST_SHARED_OBJECT + fonts.size() + forms.size();
+        this.nextObject = firstPageObject;
+
+        this.out.write(HEADER);
+    }
+
+    /**
+     * Writes the next page, whose content streams are already Flate encoded. Several streams are drawn in the given
+     * order, as if they were one.
+     */
+    public void addPage(byte[]... flateEncodedContents) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("The document is already finished");
+        }
+        if (flateEncodedContents.length == 0) {
+            throw new IllegalArgumentException("A page needs a content stream");
+        }
+        var contents = new StringBuilder();
+        for (var content : flateEncodedContents) {
+            var contentObject = nextObject++;
+            beginObject(contentObject);
+            writeStream("", content);
+            endObject();
+            contents.append(contents.length() == 0 ? "" : " ").append(contentObject).append(" 0 R");
+        }
+        if (flateEncodedContents.length > 1) {
+            contents.insert(0, '[').append(']');
+        }
+
+        var pageObject = nextObject++;
+        beginObject(pageObject);
+        write("<< /Type /Page /Parent " + PAGE_TREE + " 0 R /MediaBox " + mediaBox
+                + " /Resources " + PAGE_RESOURCES + " 0 R /Contents " + contents + " >>\n");
+        endObject();
+
+        if (pageCount == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = pageObject;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Bytes written so far, the size of the file once it is finished.
+     */
+    public long getBytesWritten() {
+        return out.getCount();
+    }
+
+    /**
+     * Writes the shared objects, the page tree, the cross-reference table and the trailer, and flushes the output.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        var number = FIRST_SHARED_OBJECT;
+        var fontReferences = new StringBuilder();
+        for (var font : fonts.entrySet()) {
+            beginObject(number);
+            writeFont(font.getValue());
+            endObject();
+            fontReferences.append(name(font.getKey())).append(' ').append(number++).append(" 0 R ");
+        }
+        var fontResources = "/Font << " + fontReferences + ">>";
+
+        var formReferences = new StringBuilder();
+        var bBox = "/BBox " + mediaBox + " /Resources " + FORM_RESOURCES + " 0 R";
+        for (var form : forms.entrySet()) {
+            beginObject(number);
+            writeStream("/Type /XObject /Subtype /Form " + bBox + " ", form.getValue());
+            endObject();
+            formReferences.append(name(form.getKey())).append(' ').append(number++).append(" 0 R ");
+        }
+
+        beginObject(PAGE_RESOURCES);
+        write("<< " + fontResources + (forms.isEmpty() ? "" : " /XObject << " + formReferences + ">>") + " >>\n");
+        endObject();
+
+        beginObject(FORM_RESOURCES);
+        write("<< " + fontResources + " >>\n");
+        endObject();
+
+        // One flat page tree, as PDDocument.addPage builds it
+        beginObject(PAGE_TREE);
+        write("<< /Type /Pages /Kids [");
+        for (int page = 0; page < pageCount; page++) {
+            write((page % 10 == 0 ? "\n" : " ") + pageObjects[page] + " 0 R");
+        }
+        write("\n] /Count " + pageCount + " >>\n");
+        endObject();
+
+        beginObject(CATALOG);
+        write("<< /Type /Catalog /Pages " + PAGE_TREE + " 0 R >>\n");
+        endObject();
+
+        var objectCount = nextObject;
+        var xref = out.getCount();
+        write("xref\n0 " + objectCount + "\n0000000000 65535 f\r\n");
+        for (int object = 1; object < objectCount; object++) {
+            write(String.format("%010d 00000 n\r\n", offsets[object]));
+        }
+        write("trailer\n<< /Size " + objectCount + " /Root " + CATALOG + " 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+        out.flush();
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = out.getCount();
+        write(number + " 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        write("endobj\n");
+    }
+
+    private void writeStream(String entries, byte[] flateEncoded) throws IOException {
+        write("<< " + entries + "/Length " + flateEncoded.length + " /Filter /FlateDecode >>\nstream\n");
+        out.write(flateEncoded);
+        write("\nendstream\n");
+    }
+
+    private void writeFont(PDFont font) throws IOException {
+        var entries = new StringBuilder("<<");
+        for (var entry : font.getCOSObject().entrySet()) {
+            entries.append(' ').append(name(entry.getKey())).append(' ').append(name(entry.getValue(), font));
+        }
+        write(entries.append(" >>\n").toString());
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String name(COSBase value, PDFont font) throws IOException {
+        if (!(value instanceof COSName)) {
+            throw new IllegalArgumentException("Only fonts described by names can be written progressively: " + font.getName());
+        }
+        return name((COSName) value);
+    }
+
+    private static String name(COSName name) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        name.writePDF(bytes);
+        return bytes.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String number(float value) {
+        return new BigDecimal(Float.toString(value)).stripTrailingZeros().toPlainString();
+    }
+}
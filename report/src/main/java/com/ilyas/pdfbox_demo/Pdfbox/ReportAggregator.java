@@ -0,0 +1,290 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregation pass run before the layout: counts and sums the balances for nested groups, e.g. by status and then
+ * by account type, so sub-totals, the grand total and the summary are known before the first page is drawn.
+ * <p>
+ * Sources that know their {@link EmployeeRowSource#rowCount() row count} are split into row ranges summed in
+ * parallel by fork-join tasks, each reading its range from its own cursor; other sources are read once on the
+ * calling thread. Sums are compensated (Kahan-Babuska), so they stay exact to the cent over millions of rows in any
+ * split, where plain {@code double} addition drifts.
+ * <p>
+ * The same read can aggregate by several key lists and measure the column widths, so a report is planned from one
+ * pass over its rows.
+ */
+public final class ReportAggregator {
+
+    // Rows summed by one task, large enough to pay for opening a cursor
+    private static final int ROWS_PER_TASK = 1 << 16;
+
+    private ReportAggregator() {
+    }
+
+    public static Aggregate aggregate(EmployeeRowSource rowSource, List<EmployeeColumn> keys) {
+        return aggregate(rowSource, keys, ForkJoinPool.commonPool());
+    }
+
+    public static Aggregate aggregate(EmployeeRowSource rowSource, List<EmployeeColumn> keys, ForkJoinPool pool) {
+        return aggregate(rowSource, List.of(keys), null, pool).get(0);
+    }
+
+    static List<Aggregate> aggregate(EmployeeRowSource rowSource, List<List<EmployeeColumn>> keyLists, ColumnWidths.Meter meter) {
+        return aggregate(rowSource, keyLists, meter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Aggregates by each of {@code keyLists}, and measures the columns with {@code meter} unless it is {@code null},
+     * all in one read of the rows. The totals are returned in the order of the key lists.
+     */
+    static List<Aggregate> aggregate(EmployeeRowSource rowSource, List<List<EmployeeColumn>> keyLists, ColumnWidths.Meter meter,
+                                     ForkJoinPool pool) {
+        var groupKeys = new EmployeeColumn[keyLists.size()][];
+        for (int i = 0; i < groupKeys.length; i++) {
+            if (keyLists.get(i).contains(EmployeeColumn.BALANCE)) {
+                throw new IllegalArgumentException("Balances are aggregated, they can't be a grouping key");
+            }
+            groupKeys[i] = keyLists.get(i).toArray(new EmployeeColumn[0]);
+        }
+        var rowCount = rowSource.rowCount();
+
+        Pass pass;
+        if (rowCount < 0) {
+            pass = new Pass(groupKeys, meter != null ? meter.empty() : null);
+            long row = 0;
+            for (var rows = rowSource.open(); rows.hasNext(); row++) {
+                pass.add(rows.next(), row);
+            }
+        } else {
+            pass = pool.invoke(new RangeTask(rowSource, groupKeys, meter, 0, rowCount));
+        }
+        if (meter != null) {
+            meter.merge(pass.meter);
+        }
+        var totals = new ArrayList<Aggregate>(groupKeys.length);
+        for (var total : pass.totals) {
+            totals.add(total.toAggregate());
+        }
+        return totals;
+    }
+
+    private static Object keyValue(EmployeeRow row, EmployeeColumn key) {
+        switch (key) {
+            case FIRST_NAME:
+                return row.getFirstName();
+            case LAST_NAME:
+                return row.getLastName();
+            case ACCOUNT_TYPE_NAME:
+                return row.getAccountTypeName();
+            case ALIAS:
+                return row.getAlias();
+            case STATUS:
+                return row.getStatus();
+            default:
+                throw new IllegalArgumentException("Not a grouping key: " + key);
+        }
+    }
+
+    private static final class RangeTask extends RecursiveTask<Pass> {
+        private static final long serialVersionUID = 1L;
+
+        private final EmployeeRowSource rowSource;
+        private final EmployeeColumn[][] keyLists;
+        private final ColumnWidths.Meter meter;
+        private final long fromRow;
+        private final long toRow;
+
+        private RangeTask(EmployeeRowSource rowSource, EmployeeColumn[][] keyLists, ColumnWidths.Meter meter, long fromRow, long toRow) {
+            this.rowSource = rowSource;
+            this.keyLists = keyLists;
+            this.meter = meter;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected Pass compute() {
+            if (toRow - fromRow <= ROWS_PER_TASK) {
+                var pass = new Pass(keyLists, meter != null ? meter.empty() : null);
+                var rows = rowSource.open(fromRow);
+                for (long row = fromRow; row < toRow; row++) {
+                    if (!rows.hasNext()) {
+                        throw new IllegalStateException(String.format("Source ended at row %d, it reported %d rows", row, rowSource.rowCount()));
+                    }
+                    pass.add(rows.next(), row);
+                }
+                return pass;
+            }
+            var middle = fromRow + (toRow - fromRow) / 2;
+            var left = new RangeTask(rowSource, keyLists, meter, fromRow, middle);
+            var right = new RangeTask(rowSource, keyLists, meter, middle, toRow);
+            left.fork();
+            var rightPass = right.compute();
+            var pass = left.join();
+            pass.merge(rightPass);
+            return pass;
+        }
+    }
+
+    /**
+     * Totals by every key list and the measured widths of the rows read by one task.
+     */
+    private static final class Pass {
+        private final EmployeeColumn[][] keyLists;
+        private final Accumulator[] totals;
+        private final ColumnWidths.Meter meter;
+
+        private Pass(EmployeeColumn[][] keyLists, ColumnWidths.Meter meter) {
+            this.keyLists = keyLists;
+            this.totals = new Accumulator[keyLists.length];
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = new Accumulator(null, null);
+            }
+            this.meter = meter;
+        }
+
+        private void add(EmployeeRow row, long index) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i].add(row, index, keyLists[i], 0);
+            }
+            if (meter != null) {
+                meter.add(row);
+            }
+        }
+
+        private void merge(Pass other) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i].merge(other.totals[i]);
+            }
+            if (meter != null) {
+                meter.merge(other.meter);
+            }
+        }
+    }
+
+    /**
+     * Mutable totals of one group while rows are added, turned into an {@link Aggregate} at the end. Only the
+     * innermost groups count rows; the totals of the outer ones are added up from their nested groups at the end.
+     */
+    private static final class Accumulator {
+        private final EmployeeColumn key;
+        private final Object value;
+        private long rowCount;
+        private double sum;
+        private double compensation;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private long firstRow = -1;
+        private long lastRow = -1;
+        private Map<Object, Accumulator> children;
+
+        // Rows come grouped, so the next row mostly belongs to the same nested group as the last one
+        private Accumulator lastChild;
+
+        private Accumulator(EmployeeColumn key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        private void add(EmployeeRow row, long index, EmployeeColumn[] keys, int level) {
+            if (level == keys.length) {
+                addRow(row.getBalance(), index);
+                return;
+            }
+            var childValue = keyValue(row, keys[level]);
+            var child = lastChild;
+            if (child == null || !Objects.equals(child.value, childValue)) {
+                if (children == null) {
+                    children = new HashMap<>();
+                }
+                child = children.get(childValue);
+                if (child == null) {
+                    child = new Accumulator(keys[level], childValue);
+                    children.put(childValue, child);
+                }
+                lastChild = child;
+            }
+            child.add(row, index, keys, level + 1);
+        }
+
+        private void addRow(double balance, long index) {
+            rowCount++;
+            addToSum(balance);
+            if (balance < min) {
+                min = balance;
+            }
+            if (balance > max) {
+                max = balance;
+            }
+            if (firstRow < 0) {
+                firstRow = index;
+            }
+            lastRow = index;
+        }
+
+        // Neumaier's variant of Kahan summation, also exact when the next value is larger than the sum
+        private void addToSum(double value) {
+            var next = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - next) + value;
+            } else {
+                compensation += (value - next) + sum;
+            }
+            sum = next;
+        }
+
+        /**
+         * Adds the rows of {@code other}, which were counted separately, e.g. by another task.
+         */
+        private void merge(Accumulator other) {
+            addTotals(other);
+            if (other.children != null) {
+                if (children == null) {
+                    children = new HashMap<>();
+                }
+                for (var otherChild : other.children.values()) {
+                    var child = children.get(otherChild.value);
+                    if (child == null) {
+                        children.put(otherChild.value, otherChild);
+                    } else {
+                        child.merge(otherChild);
+                    }
+                }
+            }
+        }
+
+        private void addTotals(Accumulator other) {
+            if (other.rowCount == 0) {
+                return;
+            }
+            rowCount += other.rowCount;
+            addToSum(other.sum);
+            compensation += other.compensation;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            firstRow = firstRow < 0 ? other.firstRow : Math.min(firstRow, other.firstRow);
+            lastRow = Math.max(lastRow, other.lastRow);
+        }
+
+        private Aggregate toAggregate() {
+            var nested = new ArrayList<Aggregate>();
+            if (children != null) {
+                for (var child : children.values()) {
+                    nested.add(child.toAggregate());
+                    addTotals(child);
+                }
+                nested.sort(Comparator.comparingLong(Aggregate::getFirstRow));
+            }
+            return new Aggregate(key, value, rowCount, sum + compensation,
+                    rowCount == 0 ? Double.NaN : min, rowCount == 0 ? Double.NaN : max, firstRow, lastRow, nested);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of generated reports, kept as files in one directory. A report is named after a SHA-256 hash of everything
+ * that goes into it: the rows, the columns, the summary keys and the date in the header. Generating the same report
+ * again from unchanged data copies the file instead of rendering it.
+ * <p>
+ * Files are sent with {@link FileChannel#transferTo}, which the operating system copies without passing the bytes
+ * through the heap when the job writes to a file or socket channel. Callers asking for a report that is being
+ * generated wait for it rather than generating it too. The directory is bounded in size and the least recently used
+ * reports are deleted first; reports already in it are picked up when the cache is built.
+ * <p>
+ * Computing the key reads every row once, a small fraction of the time it takes to render them.
+ */
+public final class ReportCache {
+
+    // Bump when the rendering changes, so reports cached by an older version are not served
+    private static final int KEY_VERSION = 2;
+
+    // <key>-<page count>.pdf
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})-(\\d+)\\.pdf");
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // Cached reports from least to most recently used, guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    // Reports being generated, by key
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> generating = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private ReportCache(Builder builder) {
+        this.directory = builder.directory;
+        this.maxBytes = builder.maxBytes;
+    }
+
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Writes the report of {@code job} to its output, generating it only if it is not cached yet.
+     *
+     * @return the number of pages
+     */
+    public int write(ReportJob job) throws IOException {
+        var reportDate = job.getReportDate() != null ? job.getReportDate() : LocalDate.now();
+        var key = key(job, reportDate);
+        var target = target(job);
+
+        while (true) {
+            var entry = get(key);
+            var cached = entry != null;
+            if (!cached) {
+                entry = generate(job, reportDate, key);
+            }
+            // Null when the generation was cancelled
+            if (entry == null) {
+                continue;
+            }
+            if (transfer(entry, target)) {
+                if (cached) {
+                    hits.incrementAndGet();
+                }
+                return entry.pageCount;
+            }
+            // Deleted from outside the cache, forgotten so that the next round generates it again
+            remove(entry);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Requests that waited for another request generating the same report.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getCachedBytes() {
+        synchronized (entries) {
+            return cachedBytes;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private Entry generate(ReportJob job, LocalDate reportDate, String key) throws IOException {
+        var future = new CompletableFuture<Entry>();
+        var running = generating.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+
+        try {
+            // Another request may have finished it since the lookup
+            var entry = get(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                entry = render(job, reportDate, key);
+                add(entry);
+            }
+            future.complete(entry);
+            return entry;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            generating.remove(key, future);
+        }
+    }
+
+    private Entry render(ReportJob job, LocalDate reportDate, String key) throws IOException {
+        // Written next to the cached reports and renamed when complete, so a crash never leaves half a report
+        var temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try {
+            int pageCount;
+            try (var out = Files.newOutputStream(temp)) {
+                pageCount = Pdfbox.writeReport(job, reportDate, out);
+            }
+            var file = directory.resolve(key + "-" + pageCount + ".pdf");
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            return new Entry(key, file, Files.size(file), pageCount);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private void add(Entry entry) {
+        var evicted = new ArrayList<Entry>();
+        synchronized (entries) {
+            var previous = entries.put(entry.key, entry);
+            if (previous != null) {
+                cachedBytes -= previous.size;
+            }
+            cachedBytes += entry.size;
+
+            // The newest report stays even when it alone is over the limit, the requests waiting for it still read it
+            var eldest = entries.values().iterator();
+            while (cachedBytes > maxBytes && entries.size() > 1) {
+                var entryToEvict = eldest.next();
+                eldest.remove();
+                cachedBytes -= entryToEvict.size;
+                evicted.add(entryToEvict);
+            }
+        }
+        for (var entryToEvict : evicted) {
+            evictions.incrementAndGet();
+            try {
+                Files.deleteIfExists(entryToEvict.file);
+            } catch (IOException e) {
+                // Still open on a system that can't delete open files, it is picked up again on the next start
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        synchronized (entries) {
+            if (entries.remove(entry.key, entry)) {
+                cachedBytes -= entry.size;
+            }
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the report");
+        } catch (ExecutionException e) {
+            // The request generating it was cancelled, not this one, so try again
+            if (e.getCause() instanceof InterruptedIOException) {
+                return null;
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static boolean transfer(Entry entry, WritableByteChannel target) throws IOException {
+        FileChannel file;
+        try {
+            file = FileChannel.open(entry.file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try (file) {
+            var size = file.size();
+            for (long position = 0; position < size; ) {
+                position += file.transferTo(position, size - position, target);
+            }
+        }
+        return true;
+    }
+
+    // The output is left open, closing the channel would close it
+    private static WritableByteChannel target(ReportJob job) {
+        if (job.getChannel() != null) {
+            return job.getChannel();
+        }
+        if (job.getOutput() instanceof FileOutputStream) {
+            return ((FileOutputStream) job.getOutput()).getChannel();
+        }
+        return Channels.newChannel(job.getOutput());
+    }
+
+    /**
+     * Hash of everything the report of {@code job} is generated from, as 64 hex digits.
+     */
+    static String key(ReportJob job, LocalDate reportDate) {
+        var hasher = new RowHasher();
+        hasher.putInt(KEY_VERSION);
+        hasher.putString(reportDate.toString());
+        hasher.putColumns(job.getColumns());
+        hasher.putColumns(job.getSummaryKeys());
+
+        for (var rows = job.getRowSource().open(); rows.hasNext(); ) {
+            hasher.putRow(rows.next());
+        }
+        return hasher.finish();
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Path file;
+        private final long size;
+        private final int pageCount;
+
+        private Entry(String key, Path file, long size, int pageCount) {
+            this.key = key;
+            this.file = file;
+            this.size = size;
+            this.pageCount = pageCount;
+        }
+    }
+
+    public static final class Builder {
+        private final Path directory;
+        private long maxBytes = 1L << 30;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Size the cached reports may take on disk together, 1 GB by default.
+         */
+        public Builder maxBytes(long maxBytes) {
+            if (maxBytes <= 0) {
+                throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+            }
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        /**
+         * Creates the directory if needed and takes over the reports in it, oldest first.
+         */
+        public ReportCache build() throws IOException {
+            Files.createDirectories(directory);
+            var cache = new ReportCache(this);
+
+            var found = new ArrayList<Entry>();
+            var modified = new LinkedHashMap<Entry, FileTime>();
+            try (var files = Files.list(directory)) {
+                for (var file : (Iterable<Path>) files::iterator) {
+                    var name = file.getFileName().toString();
+                    var matcher = FILE_NAME.matcher(name);
+                    if (matcher.matches()) {
+                        var entry = new Entry(matcher.group(1), file, Files.size(file), Integer.parseInt(matcher.group(2)));
+                        found.add(entry);
+                        modified.put(entry, Files.getLastModifiedTime(file));
+                    } else if (name.endsWith(TEMP_SUFFIX)) {
+                        // Left by a generation that never finished
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            found.sort(Comparator.comparing(modified::get));
+            for (var entry : found) {
+                cache.add(entry);
+            }
+            return cache;
+        }
+    }
+}
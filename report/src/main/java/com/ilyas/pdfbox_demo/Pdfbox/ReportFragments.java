@@ -0,0 +1,248 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered pages of every status group of one report, kept in a directory from one run to the next. Each group is
+ * stored under a fingerprint of its rows and the columns with their widths, so
+ * {@link Pdfbox#writePdf(EmployeeRowSource, List, java.time.LocalDate, ReportFragments, java.io.OutputStream)}
+ * only renders the groups whose rows changed and copies the pages of the others.
+ * <p>
+ * The directory should hold the fragments of a single report: every run deletes the fragments it didn't use. One
+ * report is written at a time.
+ */
+public final class ReportFragments {
+
+    // Bump when the rendering changes, so pages stored by an older version are rendered again
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String SUFFIX = ".pages";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    private final AtomicLong reusedGroups = new AtomicLong();
+    private final AtomicLong renderedGroups = new AtomicLong();
+    private final AtomicLong reusedPages = new AtomicLong();
+    private final AtomicLong renderedPages = new AtomicLong();
+
+    private ReportFragments(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Uses the fragments in {@code directory}, which is created if needed.
+     */
+    public static ReportFragments open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new ReportFragments(directory);
+    }
+
+    public long getReusedGroupCount() {
+        return reusedGroups.get();
+    }
+
+    public long getRenderedGroupCount() {
+        return renderedGroups.get();
+    }
+
+    public long getReusedPageCount() {
+        return reusedPages.get();
+    }
+
+    public long getRenderedPageCount() {
+        return renderedPages.get();
+    }
+
+    /**
+     * Fingerprint of every group, in one pass over the rows. The pages of a group only depend on what is hashed: its
+     * status, its rows and the columns with their widths. The widths are sized from all rows, so a change that widens
+     * a column renders every group again.
+     */
+    List<String> fingerprints(EmployeeRowSource rowSource, TableColumns table, List<StatusGroup> groups) {
+        var fingerprints = new ArrayList<String>(groups.size());
+        var hasher = new RowHasher();
+        var rows = rowSource.open();
+
+        for (var group : groups) {
+            hasher.putInt(FORMAT_VERSION);
+            hasher.putColumns(table.getColumns());
+            for (int i = 0; i < table.size(); i++) {
+                hasher.putDouble(table.getWidth(i));
+            }
+            hasher.putInt(group.getStatus().ordinal());
+            for (long i = 0; i < group.getRowCount(); i++) {
+                var row = rows.next();
+                if (row.getStatus() != group.getStatus()) {
+                    throw new IllegalStateException("Rows changed between the layout and the fingerprints");
+                }
+                hasher.putRow(row);
+            }
+            fingerprints.add(hasher.finish());
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Opens the stored pages of a group, or returns {@code null} if they are missing or of another length. A file
+     * too short to hold its page count, or that can't be read, is deleted and counts as missing.
+     */
+    PageReader read(String fingerprint, int pageCount) throws IOException {
+        var file = file(fingerprint);
+        DataInputStream pages;
+        long size;
+        try {
+            size = Files.size(file);
+            pages = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            if (pages.readInt() != pageCount) {
+                pages.close();
+                return null;
+            }
+        } catch (IOException e) {
+            pages.close();
+            Files.deleteIfExists(file);
+            return null;
+        }
+        reusedGroups.incrementAndGet();
+        reusedPages.addAndGet(pageCount);
+        return new PageReader(file, pageCount, size - Integer.BYTES, pages);
+    }
+
+    /**
+     * Starts storing the pages of a group. They replace the stored ones when {@link PageWriter#commit()} is called
+     * after the last page.
+     */
+    PageWriter write(String fingerprint, int pageCount) throws IOException {
+        var temp = Files.createTempFile(directory, fingerprint, TEMP_SUFFIX);
+        var pages = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024));
+        pages.writeInt(pageCount);
+        return new PageWriter(fingerprint, pageCount, temp, pages);
+    }
+
+    /**
+     * Deletes the fragments of the groups that are no longer in the report, and leftovers of failed runs.
+     */
+    void retain(List<String> fingerprints) throws IOException {
+        Set<Path> kept = new HashSet<>();
+        for (var fingerprint : fingerprints) {
+            kept.add(file(fingerprint));
+        }
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var name = file.getFileName().toString();
+                if ((name.endsWith(SUFFIX) || name.endsWith(TEMP_SUFFIX)) && !kept.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private Path file(String fingerprint) {
+        return directory.resolve(fingerprint + SUFFIX);
+    }
+
+    /**
+     * Stored pages of a group, Flate encoded, in page order.
+     */
+    final class PageReader implements Closeable {
+        private final Path file;
+        private final int pageCount;
+        private final DataInputStream pages;
+        private long remainingBytes;
+        private int pagesRead;
+
+        private PageReader(Path file, int pageCount, long remainingBytes, DataInputStream pages) {
+            this.file = file;
+            this.pageCount = pageCount;
+            this.remainingBytes = remainingBytes;
+            this.pages = pages;
+        }
+
+        /**
+         * Returns the next page, or {@code null} if the file is truncated or corrupt. The file is deleted then, and
+         * the caller renders the remaining pages of the group.
+         */
+        byte[] next() throws IOException {
+            try {
+                int length = pages.readInt();
+                if (length < 0 || length > remainingBytes - Integer.BYTES) {
+                    throw new IOException("Page length out of range: " + length);
+                }
+                var content = new byte[length];
+                pages.readFully(content);
+                remainingBytes -= Integer.BYTES + length;
+                pagesRead++;
+                return content;
+            } catch (IOException e) {
+                pages.close();
+                Files.deleteIfExists(file);
+                int unread = pageCount - pagesRead;
+                reusedPages.addAndGet(-unread);
+                renderedPages.addAndGet(unread);
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            pages.close();
+        }
+    }
+
+    final class PageWriter implements Closeable {
+        private final String fingerprint;
+        private final int pageCount;
+        private final Path temp;
+        private final DataOutputStream pages;
+        private boolean committed;
+
+        private PageWriter(String fingerprint, int pageCount, Path temp, DataOutputStream pages) {
+            this.fingerprint = fingerprint;
+            this.pageCount = pageCount;
+            this.temp = temp;
+            this.pages = pages;
+        }
+
+        void add(byte[] flateEncodedContent) throws IOException {
+            pages.writeInt(flateEncodedContent.length);
+            pages.write(flateEncodedContent);
+        }
+
+        void commit() throws IOException {
+            pages.close();
+            Files.move(temp, file(fingerprint), StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            renderedGroups.incrementAndGet();
+            renderedPages.addAndGet(pageCount);
+        }
+
+        /**
+         * Drops the pages unless they were committed.
+         */
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                pages.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One report for the {@link ReportService}: where the rows come from, which columns to show and where the PDF goes.
+ * The output is written to but never closed, it belongs to whoever created the job.
+ */
+public final class ReportJob {
+
+    private final EmployeeRowSource rowSource;
+    private final List<EmployeeColumn> columns;
+    private final List<EmployeeColumn> summaryKeys;
+    private final LocalDate reportDate;
+    private final OutputStream output;
+    private final WritableByteChannel channel;
+    private final Duration timeout;
+
+    private ReportJob(Builder builder) {
+        this.rowSource = builder.rowSource;
+        this.columns = builder.columns;
+        this.summaryKeys = builder.summaryKeys;
+        this.reportDate = builder.reportDate;
+        this.output = builder.output;
+        this.channel = builder.channel;
+        this.timeout = builder.timeout;
+    }
+
+    public static Builder builder(EmployeeRowSource rowSource) {
+        return new Builder(rowSource);
+    }
+
+    public EmployeeRowSource getRowSource() {
+        return rowSource;
+    }
+
+    public List<EmployeeColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the grouping of the summary on page 1, or {@code null} for no summary
+     */
+    public List<EmployeeColumn> getSummaryKeys() {
+        return summaryKeys;
+    }
+
+    /**
+     * @return the date printed in the header, or {@code null} for the day the report is generated
+     */
+    public LocalDate getReportDate() {
+        return reportDate;
+    }
+
+    public OutputStream getOutput() {
+        return output;
+    }
+
+    /**
+     * @return the channel the output writes to, or {@code null} if the job was given a stream
+     */
+    public WritableByteChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return the time the job may run, or {@code null} to use the service default
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public static final class Builder {
+        private final EmployeeRowSource rowSource;
+        private List<EmployeeColumn> columns = List.of(EmployeeColumn.values());
+        private List<EmployeeColumn> summaryKeys;
+        private LocalDate reportDate;
+        private OutputStream output;
+        private WritableByteChannel channel;
+        private Duration timeout;
+
+        private Builder(EmployeeRowSource rowSource) {
+            this.rowSource = Objects.requireNonNull(rowSource, "rowSource");
+        }
+
+        public Builder columns(EmployeeColumn... columns) {
+            return columns(List.of(columns));
+        }
+
+        public Builder columns(List<EmployeeColumn> columns) {
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("The report needs at least one column");
+            }
+            this.columns = List.copyOf(columns);
+            return this;
+        }
+
+        /**
+         * Opens the report with a summary of the groups by {@code keys}, nested in that order, e.g. status and then
+         * account type. Without keys the summary only covers all rows.
+         */
+        public Builder summary(EmployeeColumn... keys) {
+            this.summaryKeys = List.of(keys);
+            return this;
+        }
+
+        public Builder reportDate(LocalDate reportDate) {
+            this.reportDate = Objects.requireNonNull(reportDate, "reportDate");
+            return this;
+        }
+
+        public Builder output(OutputStream output) {
+            this.output = Objects.requireNonNull(output, "output");
+            this.channel = null;
+            return this;
+        }
+
+        /**
+         * Writes the report to a channel. Like all blocking I/O on an interruptible channel, cancelling the job while
+         * it writes closes the channel.
+         */
+        public Builder output(WritableByteChannel output) {
+            this.output = Channels.newOutputStream(Objects.requireNonNull(output, "output"));
+            this.channel = output;
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        public ReportJob build() {
+            if (output == null) {
+                throw new IllegalStateException("No output set for the report");
+            }
+            return new ReportJob(this);
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable page plan of the report table: which status headers, employee rows, sub-totals and grand total go on
+ * which page, and at which height. It is computed from the group sizes and sub-totals only, so page counts are known
+ * and any page can be rendered on its own, without drawing the ones before it. Pages are laid out when they are
+ * read rather than kept, so a layout of millions of rows is as small as one of a hundred.
+ * <p>
+ * A report may open with a summary on page 1, in which case the table on that page starts lower.
+ */
+public final class ReportLayout {
+
+    public enum LineType {
+        STATUS, ROWS, SUB_TOTAL, GRAND_TOTAL
+    }
+
+    /**
+     * A horizontal band of the table. {@link LineType#ROWS} bands hold consecutive employee rows, every other
+     * type is a single row high.
+     */
+    public static final class Line {
+        private final LineType type;
+        private final EmployeeStatus status;
+        private final long firstRow;
+        private final int rowCount;
+        private final double amount;
+        private final float top;
+
+        private Line(LineType type, EmployeeStatus status, long firstRow, int rowCount, double amount, float top) {
+            this.type = type;
+            this.status = status;
+            this.firstRow = firstRow;
+            this.rowCount = rowCount;
+            this.amount = amount;
+            this.top = top;
+        }
+
+        public LineType getType() {
+            return type;
+        }
+
+        /**
+         * Status of the group, {@code null} for the grand total.
+         */
+        public EmployeeStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Index of the first employee row in source order, only meaningful for {@link LineType#ROWS}.
+         */
+        public long getFirstRow() {
+            return firstRow;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Sub-total or grand total to print, only meaningful for the total lines.
+         */
+        public double getAmount() {
+            return amount;
+        }
+
+        public float getTop() {
+            return top;
+        }
+    }
+
+    public static final class Page {
+        private final int number;
+        private final List<Line> lines;
+        private final long firstRow;
+        private final float tableOffset;
+        private final float tableBottom;
+
+        private Page(int number, List<Line> lines, long firstRow, float tableOffset, float tableBottom) {
+            this.number = number;
+            this.lines = Collections.unmodifiableList(lines);
+            this.firstRow = firstRow;
+            this.tableOffset = tableOffset;
+            this.tableBottom = tableBottom;
+        }
+
+        /**
+         * One-based page number.
+         */
+        public int getNumber() {
+            return number;
+        }
+
+        public List<Line> getLines() {
+            return lines;
+        }
+
+        /**
+         * Number of employee rows placed on the pages before this one, i.e. where a cursor rendering it starts.
+         */
+        public long getFirstRow() {
+            return firstRow;
+        }
+
+        /**
+         * How far below its usual position the table starts on this page, to make room for the summary.
+         */
+        public float getTableOffset() {
+            return tableOffset;
+        }
+
+        /**
+         * Lowest point of the table on this page, where the column rules end.
+         */
+        public float getTableBottom() {
+            return tableBottom;
+        }
+    }
+
+    // Where the layout goes next: the start of a group, which may begin with a page break, or the next line
+    private enum Step {
+        GROUP, STATUS, ROWS, SUB_TOTAL, GRAND_TOTAL, DONE
+    }
+
+    private final List<StatusGroup> groups;
+    private final Geometry geometry;
+    private final boolean newPagePerGroup;
+    // Starts of the pages that are not full pages of employee rows, by page number; those are worked out from here
+    private final List<PageStart> pageStarts;
+    private final int pageCount;
+    private final long rowCount;
+    private final Aggregate summary;
+    private final ColumnWidths columnWidths;
+    private final List<Page> pages = new PageList();
+
+    private ReportLayout(List<StatusGroup> groups, Geometry geometry, boolean newPagePerGroup, List<PageStart> pageStarts,
+                         int pageCount, long rowCount, Aggregate summary, ColumnWidths columnWidths) {
+        this.groups = groups;
+        this.geometry = geometry;
+        this.newPagePerGroup = newPagePerGroup;
+        this.pageStarts = pageStarts;
+        this.pageCount = pageCount;
+        this.rowCount = rowCount;
+        this.summary = summary;
+        this.columnWidths = columnWidths;
+    }
+
+    /**
+     * All pages in order. The pages are laid out again whenever they are read, the layout itself only holds where
+     * every status group starts, so it takes the same memory however many pages the report has.
+     */
+    public List<Page> getPages() {
+        return pages;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public Page getPage(int number) {
+        if (number < 1 || number > pageCount) {
+            throw new IndexOutOfBoundsException("Page " + number + " of " + pageCount);
+        }
+        var cursor = new Cursor(pageStart(number), true);
+        cursor.fillPage();
+        return cursor.toPage();
+    }
+
+    /**
+     * The status groups the layout was planned from, in the order their rows are delivered.
+     */
+    public List<StatusGroup> getGroups() {
+        return groups;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of employee rows on pages {@code fromPage} to {@code toPage}, found without laying the pages out.
+     */
+    public long getRowCount(int fromPage, int toPage) {
+        if (fromPage < 1 || toPage > pageCount || fromPage > toPage) {
+            throw new IndexOutOfBoundsException(String.format("Pages %d-%d of %d", fromPage, toPage, pageCount));
+        }
+        var end = toPage == pageCount ? rowCount : pageStart(toPage + 1).firstRow;
+        return end - pageStart(fromPage).firstRow;
+    }
+
+    /**
+     * Table bottom of a page filled to capacity, which is where most pages end.
+     */
+    public float getFullTableBottom() {
+        return geometry.firstLineTop - geometry.rowHeight * geometry.rowsPerPage;
+    }
+
+    /**
+     * Aggregates to show in the summary on page 1, {@code null} without a summary.
+     */
+    public Aggregate getSummary() {
+        return summary;
+    }
+
+    /**
+     * Widest values of the columns the table is sized from, {@code null} when the rows were not measured and the
+     * columns share the table width equally.
+     */
+    public ColumnWidths getColumnWidths() {
+        return columnWidths;
+    }
+
+    /**
+     * The same pages with the columns sized from {@code columnWidths}. Page breaks don't depend on the widths.
+     */
+    public ReportLayout withColumnWidths(ColumnWidths columnWidths) {
+        return new ReportLayout(groups, geometry, newPagePerGroup, pageStarts, pageCount, rowCount, summary, columnWidths);
+    }
+
+    /**
+     * Lays out the groups in the order of {@code groups}, which must be the order the rows are delivered in.
+     *
+     * @param firstLineTop  top of the first band under the column header on every page
+     * @param lowestLineTop a band whose top falls below this goes to the next page
+     * @param rowHeight     height of a single row
+     */
+    public static ReportLayout plan(List<StatusGroup> groups, float firstLineTop, float lowestLineTop, float rowHeight) {
+        return plan(groups, null, 0, firstLineTop, lowestLineTop, rowHeight);
+    }
+
+    /**
+     * Like {@link #plan(List, float, float, float)}, with a summary on page 1 that pushes the table on that page
+     * down by {@code summaryHeight}.
+     */
+    public static ReportLayout plan(List<StatusGroup> groups, Aggregate summary, float summaryHeight,
+                                    float firstLineTop, float lowestLineTop, float rowHeight) {
+        return plan(groups, summary, summaryHeight, firstLineTop, lowestLineTop, rowHeight, false);
+    }
+
+    /**
+     * Like {@link #plan(List, Aggregate, float, float, float, float)}, optionally starting every group on a new page.
+     * The pages of a group then only depend on its own rows, so they can be reused while other groups change.
+     * <p>
+     * Runs of pages filled with the rows of one group are counted rather than laid out, so planning takes time in
+     * the number of groups, not pages.
+     */
+    public static ReportLayout plan(List<StatusGroup> groups, Aggregate summary, float summaryHeight,
+                                    float firstLineTop, float lowestLineTop, float rowHeight, boolean newPagePerGroup) {
+        if (firstLineTop - rowHeight < lowestLineTop) {
+            throw new IllegalArgumentException("A page must hold at least two rows");
+        }
+        if (firstLineTop - summaryHeight - rowHeight < lowestLineTop) {
+            throw new IllegalArgumentException("The summary leaves no room for the table on page 1");
+        }
+        var geometry = new Geometry(firstLineTop, lowestLineTop, rowHeight);
+        var layout = new ReportLayout(List.copyOf(groups), geometry, newPagePerGroup, List.of(), 0, 0, summary, null);
+
+        var pageStarts = new ArrayList<PageStart>();
+        var start = new PageStart(1, 0, groups.isEmpty() ? Step.GRAND_TOTAL : Step.GROUP, 0, 0, 0, summaryHeight);
+        while (true) {
+            pageStarts.add(start);
+            var fullPages = start.fullPages(geometry);
+            if (fullPages > 0) {
+                start = start.skip(fullPages, geometry);
+                continue;
+            }
+            var cursor = layout.new Cursor(start, false);
+            if (!cursor.fillPage()) {
+                return new ReportLayout(layout.groups, geometry, newPagePerGroup, List.copyOf(pageStarts), start.number,
+                        cursor.nextRow, summary, null);
+            }
+            start = cursor.nextPageStart();
+        }
+    }
+
+    private PageStart pageStart(int number) {
+        // Last recorded start at or before the page, the pages in between are full pages of rows
+        int low = 0;
+        int high = pageStarts.size() - 1;
+        while (low < high) {
+            var middle = (low + high + 1) >>> 1;
+            if (pageStarts.get(middle).number <= number) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        var start = pageStarts.get(low);
+        return start.number == number ? start : start.skip(number - start.number, geometry);
+    }
+
+    private static final class Geometry {
+        private final float firstLineTop;
+        private final float lowestLineTop;
+        private final float rowHeight;
+        // Rows on a page that holds nothing else
+        private final int rowsPerPage;
+
+        private Geometry(float firstLineTop, float lowestLineTop, float rowHeight) {
+            this.firstLineTop = firstLineTop;
+            this.lowestLineTop = lowestLineTop;
+            this.rowHeight = rowHeight;
+            this.rowsPerPage = freeRows(firstLineTop);
+        }
+
+        private int freeRows(float nextTop) {
+            return (int) Math.floor((nextTop - lowestLineTop) / rowHeight) + 1;
+        }
+    }
+
+    /**
+     * Everything the layout of a page depends on: what comes next and how much of the report is already placed.
+     */
+    private static final class PageStart {
+        private final int number;
+        private final int group;
+        private final Step step;
+        private final long remaining;
+        private final long firstRow;
+        private final double totalAmount;
+        private final float tableOffset;
+
+        private PageStart(int number, int group, Step step, long remaining, long firstRow, double totalAmount, float tableOffset) {
+            this.number = number;
+            this.group = group;
+            this.step = step;
+            this.remaining = remaining;
+            this.firstRow = firstRow;
+            this.totalAmount = totalAmount;
+            this.tableOffset = tableOffset;
+        }
+
+        // Pages from here on that hold nothing but rows of the current group
+        private long fullPages(Geometry geometry) {
+            return step == Step.ROWS && tableOffset == 0 ? remaining / geometry.rowsPerPage : 0;
+        }
+
+        private PageStart skip(long pages, Geometry geometry) {
+            var rows = pages * geometry.rowsPerPage;
+            var left = remaining - rows;
+            return new PageStart(Math.toIntExact(number + pages), group, left > 0 ? Step.ROWS : Step.SUB_TOTAL, left,
+                    firstRow + rows, totalAmount, 0);
+        }
+    }
+
+    /**
+     * Lays out one page from its start, the same way for planning and for rendering.
+     */
+    private final class Cursor {
+        private final PageStart start;
+        private final List<Line> lines;
+        private int group;
+        private Step step;
+        private long remaining;
+        private long nextRow;
+        private double totalAmount;
+        private float nextTop;
+        private boolean empty = true;
+
+        private Cursor(PageStart start, boolean keepLines) {
+            this.start = start;
+            this.lines = keepLines ? new ArrayList<>() : null;
+            this.group = start.group;
+            this.step = start.step;
+            this.remaining = start.remaining;
+            this.nextRow = start.firstRow;
+            this.totalAmount = start.totalAmount;
+            this.nextTop = geometry.firstLineTop - start.tableOffset;
+        }
+
+        /**
+         * Adds lines until the page is full.
+         *
+         * @return whether more pages follow
+         */
+        private boolean fillPage() {
+            while (true) {
+                switch (step) {
+                    case GROUP:
+                        if (newPagePerGroup && !empty) {
+                            step = Step.STATUS;
+                            return true;
+                        }
+                        step = Step.STATUS;
+                        break;
+                    case STATUS:
+                        // Keep the status header together with the first row of its group
+                        if (!room(2)) {
+                            return true;
+                        }
+                        add(LineType.STATUS, groups.get(group).getStatus(), 1, 0);
+                        remaining = groups.get(group).getRowCount();
+                        step = remaining > 0 ? Step.ROWS : Step.SUB_TOTAL;
+                        break;
+                    case ROWS:
+                        if (!room(1)) {
+                            return true;
+                        }
+                        var rows = (int) Math.min(remaining, geometry.freeRows(nextTop));
+                        add(LineType.ROWS, groups.get(group).getStatus(), rows, 0);
+                        nextRow += rows;
+                        remaining -= rows;
+                        if (remaining == 0) {
+                            step = Step.SUB_TOTAL;
+                        }
+                        break;
+                    case SUB_TOTAL:
+                        if (!room(1)) {
+                            return true;
+                        }
+                        var subTotal = groups.get(group).getSubTotal();
+                        add(LineType.SUB_TOTAL, groups.get(group).getStatus(), 1, subTotal);
+                        totalAmount += subTotal;
+                        group++;
+                        step = group < groups.size() ? Step.GROUP : Step.GRAND_TOTAL;
+                        break;
+                    case GRAND_TOTAL:
+                        if (!room(1)) {
+                            return true;
+                        }
+                        add(LineType.GRAND_TOTAL, null, 1, totalAmount);
+                        step = Step.DONE;
+                        return false;
+                    default:
+                        return false;
+                }
+            }
+        }
+
+        // A page takes at least one line, however little room it has
+        private boolean room(int rows) {
+            return empty || geometry.freeRows(nextTop) >= rows;
+        }
+
+        private void add(LineType type, EmployeeStatus status, int rowCount, double amount) {
+            if (lines != null) {
+                lines.add(new Line(type, status, nextRow, rowCount, amount, nextTop));
+            }
+            nextTop -= geometry.rowHeight * rowCount;
+            empty = false;
+        }
+
+        private PageStart nextPageStart() {
+            return new PageStart(start.number + 1, group, step, remaining, nextRow, totalAmount, 0);
+        }
+
+        private Page toPage() {
+            return new Page(start.number, lines, start.firstRow, start.tableOffset, nextTop);
+        }
+    }
+
+    private final class PageList extends AbstractList<Page> implements RandomAccess {
+        @Override
+        public Page get(int index) {
+            return getPage(index + 1);
+        }
+
+        @Override
+        public int size() {
+            return pageCount;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.List;
+
+/**
+ * Receives measurements of report generation, installed with {@link Pdfbox#setMetrics(ReportMetrics)}. Calls come
+ * at the end of a phase or of a chunk of pages, never per row, so measuring adds a few calls per 64 pages and
+ * {@link #NOOP}, the default, costs nothing measurable.
+ * <p>
+ * Implementations must be thread-safe: with a parallelism above 1, chunks are reported from the rendering threads,
+ * and reports running at the same time report into the same metrics. All methods do nothing by default.
+ */
+public interface ReportMetrics {
+
+    ReportMetrics NOOP = new ReportMetrics() {
+    };
+
+    enum Phase {
+        /** Loading the rows, e.g. {@code getEmployees} */
+        FETCH,
+        /** Grouping the rows by status, aggregating the summary and measuring the columns, in one read of the rows */
+        SUMMARIZE,
+        /** Hashing the rows of every group for the incremental output */
+        FINGERPRINT,
+        /** Page breaks */
+        PLAN,
+        /** Drawing the page contents, reported per chunk by {@link #pagesRendered} */
+        RENDER,
+        /** Writing a chunk of drawn pages to the output or adding them to the document, and finishing the file */
+        WRITE
+    }
+
+    /**
+     * A phase took {@code nanos}. {@link Phase#WRITE} is reported once per chunk and once for the end of the file.
+     */
+    default void phaseCompleted(Phase phase, long nanos) {
+    }
+
+    /**
+     * A chunk of {@code pages} pages holding {@code rows} rows was drawn in {@code nanos}, into {@code contentBytes}
+     * bytes of encoded content streams.
+     */
+    default void pagesRendered(int pages, long rows, long contentBytes, long nanos) {
+    }
+
+    /**
+     * A report was written to its output by one of the {@code writePdf} methods. Reports drawn into a
+     * {@code PDDocument} only report their chunks, their size is only known once the caller saves them.
+     *
+     * @param outputBytes       size of the PDF
+     * @param peakBufferedBytes most encoded page content that was drawn but not written yet at any one time, the
+     *                          memory the pages of the report held
+     * @param nanos             time from the first page drawn to the end of the file
+     */
+    default void reportWritten(int pages, long rows, long outputBytes, long peakBufferedBytes, long nanos) {
+    }
+
+    /**
+     * Reports everything to all of {@code metrics}, e.g. to JFR and JMX.
+     */
+    static ReportMetrics combine(ReportMetrics... metrics) {
+        var all = List.of(metrics);
+        return new ReportMetrics() {
+            @Override
+            public void phaseCompleted(Phase phase, long nanos) {
+                for (var each : all) {
+                    each.phaseCompleted(phase, nanos);
+                }
+            }
+
+            @Override
+            public void pagesRendered(int pages, long rows, long contentBytes, long nanos) {
+                for (var each : all) {
+                    each.pagesRendered(pages, rows, contentBytes, nanos);
+                }
+            }
+
+            @Override
+            public void reportWritten(int pages, long rows, long outputBytes, long peakBufferedBytes, long nanos) {
+                for (var each : all) {
+                    each.reportWritten(pages, rows, outputBytes, peakBufferedBytes, nanos);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.Map;
+
+/**
+ * Report generation as seen in JConsole or any JMX client, see {@link JmxReportMetrics}. Counters add up over all
+ * reports since the bean was created; percentile maps have the keys {@code p50}, {@code p90}, {@code p99} and
+ * {@code max}.
+ */
+public interface ReportMetricsMXBean {
+
+    long getReportCount();
+
+    long getPageCount();
+
+    long getRowCount();
+
+    long getOutputBytes();
+
+    long getContentBytes();
+
+    /**
+     * Most encoded page content a single report held in memory.
+     */
+    long getPeakBufferedBytes();
+
+    /**
+     * Rows per second drawn and written by the last report.
+     */
+    double getLastRowsPerSecond();
+
+    double getLastPagesPerSecond();
+
+    /**
+     * Total time spent in every phase, in milliseconds, by phase name.
+     */
+    Map<String, Double> getPhaseMillis();
+
+    /**
+     * Time to draw and write a report, in milliseconds.
+     */
+    Map<String, Double> getReportMillisPercentiles();
+
+    /**
+     * Time to draw a chunk of pages, in milliseconds.
+     */
+    Map<String, Double> getChunkMillisPercentiles();
+
+    /**
+     * Encoded content stream size of a page, averaged over each chunk.
+     */
+    Map<String, Double> getContentBytesPerPagePercentiles();
+
+    /**
+     * Starts counting from zero again.
+     */
+    void reset();
+}
@@ -0,0 +1,258 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates reports for many callers with a fixed number of jobs running at once. Every report renders on one
+ * worker thread and streams its pages to the job's output, so the limit also bounds the memory in use: per running
+ * job, the layout, which grows with the status groups rather than the rows, plus the chunk of pages being rendered
+ * and the byte offsets of the pages already written.
+ * <p>
+ * Jobs beyond the limit wait in a bounded queue. When the queue is full, {@link #submit(ReportJob)} blocks until
+ * a job finishes and {@link #trySubmit(ReportJob, Duration)} gives up after the given wait, which pushes back on
+ * producers instead of buffering the whole night's work.
+ * <p>
+ * The returned futures can be cancelled, and a job running past its timeout fails with a
+ * {@link TimeoutException}. Both interrupt the worker, which stops rendering at the next chunk of pages.
+ * <p>
+ * With a {@link ReportCache}, reports that were generated before are copied from the cache instead.
+ */
+public final class ReportService implements AutoCloseable {
+
+    private final int maxConcurrentJobs;
+    private final int queueCapacity;
+    private final Duration defaultTimeout;
+    private final ReportCache cache;
+
+    // Running plus queued jobs
+    private final Semaphore slots;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledThreadPoolExecutor timeouts;
+
+    private ReportService(Builder builder) {
+        this.maxConcurrentJobs = builder.concurrencyLimit();
+        this.queueCapacity = builder.queueCapacity;
+        this.defaultTimeout = builder.defaultTimeout;
+        this.cache = builder.cache;
+        this.slots = new Semaphore(maxConcurrentJobs + queueCapacity);
+
+        var workerCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> new Thread(task, "report-worker-" + workerCount.incrementAndGet()));
+        this.timeouts = new ScheduledThreadPoolExecutor(1, task -> {
+            var thread = new Thread(task, "report-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Queues {@code job}, waiting for room in the queue if it is full.
+     *
+     * @return the number of pages, once the report is written
+     */
+    public Future<Integer> submit(ReportJob job) throws InterruptedException {
+        slots.acquire();
+        return start(job);
+    }
+
+    /**
+     * Queues {@code job}, waiting at most {@code wait} for room in the queue.
+     *
+     * @throws RejectedExecutionException if the queue stayed full
+     */
+    public Future<Integer> trySubmit(ReportJob job, Duration wait) throws InterruptedException {
+        if (!slots.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new RejectedExecutionException("Report queue is full");
+        }
+        return start(job);
+    }
+
+    public int getMaxConcurrentJobs() {
+        return maxConcurrentJobs;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getRunningJobs() {
+        return workers.getActiveCount();
+    }
+
+    public int getQueuedJobs() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * @return the cache in front of the generation, or {@code null}
+     */
+    public ReportCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Stops taking jobs and waits for the submitted ones to finish.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Keep waiting, jobs have their own timeouts
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            timeouts.shutdownNow();
+        }
+    }
+
+    private Future<Integer> start(ReportJob job) {
+        var timeout = job.getTimeout() != null ? job.getTimeout() : defaultTimeout;
+        var task = new ReportTask(job, timeout);
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+        return task;
+    }
+
+    private final class ReportTask extends FutureTask<Integer> {
+        private final Duration timeout;
+
+        // Worker running the job, guarded by this
+        private Thread runner;
+
+        private ReportTask(ReportJob job, Duration timeout) {
+            super(() -> {
+                if (cache != null) {
+                    return cache.write(job);
+                }
+                var reportDate = job.getReportDate() != null ? job.getReportDate() : LocalDate.now();
+                return Pdfbox.writeReport(job, reportDate, job.getOutput());
+            });
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            ScheduledFuture<?> timeoutCheck = timeout == null || isDone() ? null
+                    : timeouts.schedule(this::timeOut, timeout.toNanos(), TimeUnit.NANOSECONDS);
+            try {
+                super.run();
+            } finally {
+                if (timeoutCheck != null) {
+                    timeoutCheck.cancel(false);
+                }
+                synchronized (this) {
+                    runner = null;
+                }
+                // The slot is freed when the worker is, not when a timeout completes the future early
+                slots.release();
+            }
+        }
+
+        private void timeOut() {
+            setException(new TimeoutException("Report did not finish within " + timeout));
+            synchronized (this) {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+
+    public static final class Builder {
+        private int maxConcurrentJobs = Runtime.getRuntime().availableProcessors();
+        private long memoryPerJob;
+        private int queueCapacity = 1000;
+        private Duration defaultTimeout;
+        private ReportCache cache;
+
+        private Builder() {
+        }
+
+        public Builder maxConcurrentJobs(int maxConcurrentJobs) {
+            if (maxConcurrentJobs < 1) {
+                throw new IllegalArgumentException("Need at least one concurrent job: " + maxConcurrentJobs);
+            }
+            this.maxConcurrentJobs = maxConcurrentJobs;
+            return this;
+        }
+
+        /**
+         * Lowers the concurrency limit so that running jobs, each needing about {@code bytes}, fit into half of the
+         * maximum heap. At least one job always runs.
+         */
+        public Builder memoryPerJob(long bytes) {
+            if (bytes <= 0) {
+                throw new IllegalArgumentException("Memory per job must be positive: " + bytes);
+            }
+            this.memoryPerJob = bytes;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity < 0) {
+                throw new IllegalArgumentException("Negative queue capacity: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Timeout for jobs that don't set their own, none by default.
+         */
+        public Builder defaultTimeout(Duration defaultTimeout) {
+            if (defaultTimeout.isNegative() || defaultTimeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive: " + defaultTimeout);
+            }
+            this.defaultTimeout = defaultTimeout;
+            return this;
+        }
+
+        /**
+         * Serves reports generated before from {@code cache}, which may be shared with other services.
+         */
+        public Builder cache(ReportCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public ReportService build() {
+            return new ReportService(this);
+        }
+
+        private int concurrencyLimit() {
+            if (memoryPerJob == 0) {
+                return maxConcurrentJobs;
+            }
+            var fitting = Runtime.getRuntime().maxMemory() / 2 / memoryPerJob;
+            return (int) Math.max(1, Math.min(maxConcurrentJobs, fitting));
+        }
+    }
+}
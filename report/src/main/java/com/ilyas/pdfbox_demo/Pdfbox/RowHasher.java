@@ -0,0 +1,90 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Feeds report rows and the settings of a report into a SHA-256 digest through one buffer, so hashing millions of
+ * rows doesn't allocate. Strings and lists are prefixed with their length, which keeps {@code "ab", "c"} and
+ * {@code "a", "bc"} apart.
+ */
+final class RowHasher {
+    private final MessageDigest digest;
+    private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+    RowHasher() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void putRow(EmployeeRow row) {
+        putString(row.getFirstName());
+        putString(row.getLastName());
+        putString(row.getAccountTypeName());
+        putString(row.getAlias());
+        putInt(row.getStatus().ordinal());
+        putDouble(row.getBalance());
+    }
+
+    void putInt(int value) {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putDouble(double value) {
+        ensureRemaining(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            ensureRemaining(Character.BYTES);
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    void putColumns(List<EmployeeColumn> columns) {
+        if (columns == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(columns.size());
+        for (var column : columns) {
+            putString(column.name());
+        }
+    }
+
+    /**
+     * Returns the hash of everything put so far as 64 hex digits, and starts over.
+     */
+    String finish() {
+        flush();
+        var hex = new StringBuilder(64);
+        for (var b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        digest.update(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+}
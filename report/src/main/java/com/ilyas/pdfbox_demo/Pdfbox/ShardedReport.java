@@ -0,0 +1,404 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Generates one report in several worker JVMs, for reports too large for one JVM to finish in time. The pages of the
+ * report are split into as many contiguous ranges as there are workers, so every worker gets a key range of the rows
+ * in report order, whole status groups when they are large. Each worker opens its own row source, draws the bodies of
+ * its pages with the table drawing of {@link Pdfbox} and writes them to a part file.
+ * <p>
+ * The coordinator merges the parts in page order, each as soon as its worker is done while the later ones are still
+ * drawing. It draws the header, the grand total and the footers with the page numbers of the whole report in front
+ * of the bodies and streams every page straight to the output, so it holds a single page however large the report
+ * is. The fonts and the page chrome templates are written once for the whole document.
+ * <p>
+ * Workers are started with this class as main class and the class path of the coordinator, on the same machine. To
+ * try it from the command line:
+ * <pre>
+ * java -cp ... com.ilyas.pdfbox_demo.Pdfbox.ShardedReport --source synthetic:2000000 --workers 4 --out report.pdf
+ * </pre>
+ * Reports with a summary on page 1 are not sharded.
+ */
+public final class ShardedReport {
+
+    // First argument of a worker command line
+    private static final String WORKER = "worker";
+
+    // synthetic:<rows> or synthetic:<rows>:<weight>,<weight>,<weight>
+    private static final String SYNTHETIC_SOURCE = "synthetic:";
+
+    // First int of a part file, followed by the page count and the length and bytes of every page
+    private static final int PART_FORMAT = 0x50415254;
+
+    private final String source;
+    private final List<EmployeeColumn> columns;
+    private final int workers;
+    private final LocalDate reportDate;
+    private final Path partDirectory;
+    private final List<String> jvmOptions;
+
+    private ShardedReport(Builder builder) {
+        this.source = builder.source;
+        this.columns = builder.columns;
+        this.workers = builder.workers;
+        this.reportDate = builder.reportDate;
+        this.partDirectory = builder.partDirectory;
+        this.jvmOptions = builder.jvmOptions;
+    }
+
+    /**
+     * @param source where every worker gets the rows from: {@code synthetic:<rows>}, optionally followed by
+     *               {@code :<weights>} as for {@link EmployeeRowSource#synthetic(long, int...)}, or the name of a
+     *               class with a public no-argument constructor implementing {@code Supplier<EmployeeRowSource>},
+     *               e.g. one running the report query on a connection of its own
+     */
+    public static Builder builder(String source) {
+        return new Builder(source);
+    }
+
+    /**
+     * Generates the report in the workers and merges it into {@code out}, which is left open.
+     *
+     * @return the number of pages written
+     * @throws IOException if a worker fails, naming its pages
+     */
+    public int write(OutputStream out) throws IOException {
+        var rowSource = openSource(source);
+        // The columns are sized from all rows, so the workers get the widths rather than measuring their own rows
+        var layout = Pdfbox.planReportTable(rowSource, Pdfbox.getMetrics());
+
+        var directory = partDirectory != null ? Files.createDirectories(partDirectory) : Files.createTempDirectory("report-parts");
+        var shardCount = Math.min(workers, layout.getPageCount());
+        var shards = new ArrayList<Shard>(shardCount);
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                var fromPage = 1 + (int) ((long) layout.getPageCount() * i / shardCount);
+                var toPage = (int) ((long) layout.getPageCount() * (i + 1) / shardCount);
+                shards.add(startWorker(layout.getGroups(), layout.getColumnWidths(), fromPage, toPage, directory.resolve(String.format("part-%d-%d", fromPage, toPage))));
+            }
+            try (var parts = new Parts(shards)) {
+                return Pdfbox.writePdf(columns, layout, reportDate != null ? reportDate : LocalDate.now(), parts, out);
+            }
+        } finally {
+            for (var shard : shards) {
+                shard.process.destroyForcibly();
+                Files.deleteIfExists(shard.part);
+                Files.deleteIfExists(temp(shard.part));
+            }
+            if (partDirectory == null) {
+                Files.deleteIfExists(directory);
+            }
+        }
+    }
+
+    private Shard startWorker(List<StatusGroup> groups, ColumnWidths columnWidths, int fromPage, int toPage, Path part) throws IOException {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), ShardedReport.class.getName(), WORKER,
+                "--source", source,
+                "--columns", columns.stream().map(EmployeeColumn::name).collect(Collectors.joining(",")),
+                "--groups", groups.stream().map(ShardedReport::formatGroup).collect(Collectors.joining(",")),
+                "--widths", formatWidths(columnWidths),
+                "--pages", fromPage + "-" + toPage,
+                "--part", part.toString()));
+        var process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        return new Shard(fromPage, toPage, part, process);
+    }
+
+    /**
+     * Coordinator: {@code --source <source> --workers <count> --out <file>}. Workers are started with {@code worker}
+     * and their shard as arguments.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(WORKER)) {
+            runWorker(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        var source = "synthetic:1000000";
+        var workers = Runtime.getRuntime().availableProcessors();
+        var out = Path.of("report.pdf");
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            var value = args[i + 1];
+            switch (args[i]) {
+                case "--source":
+                    source = value;
+                    break;
+                case "--workers":
+                    workers = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    out = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        var start = System.nanoTime();
+        int pages;
+        try (var output = Files.newOutputStream(out)) {
+            pages = builder(source).workers(workers).build().write(output);
+        }
+        System.out.printf("%d pages in %d workers, %d ms%n", pages, workers, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void runWorker(String[] args) throws IOException {
+        String source = null;
+        List<EmployeeColumn> columns = null;
+        List<StatusGroup> groups = null;
+        ColumnWidths columnWidths = null;
+        int fromPage = 0;
+        int toPage = 0;
+        Path part = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            var value = args[i + 1];
+            switch (args[i]) {
+                case "--source":
+                    source = value;
+                    break;
+                case "--columns":
+                    columns = Arrays.stream(value.split(",")).map(EmployeeColumn::valueOf).collect(Collectors.toList());
+                    break;
+                case "--groups":
+                    groups = value.isEmpty() ? List.of() : Arrays.stream(value.split(",")).map(ShardedReport::parseGroup).collect(Collectors.toList());
+                    break;
+                case "--widths":
+                    columnWidths = parseWidths(value);
+                    break;
+                case "--pages":
+                    var range = value.split("-");
+                    fromPage = Integer.parseInt(range[0]);
+                    toPage = Integer.parseInt(range[1]);
+                    break;
+                case "--part":
+                    part = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (source == null || columns == null || groups == null || columnWidths == null || part == null) {
+            throw new IllegalArgumentException("A worker needs --source, --columns, --groups, --widths, --pages and --part");
+        }
+
+        // Same groups and widths, same layout as the coordinator
+        var layout = Pdfbox.planReportTable(groups).withColumnWidths(columnWidths);
+        var temp = temp(part);
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(PART_FORMAT);
+            out.writeInt(toPage - fromPage + 1);
+            Pdfbox.drawPageBodies(openSource(source), columns, layout, fromPage, toPage, bodies -> {
+                for (var body : bodies) {
+                    out.writeInt(body.length);
+                    out.write(body);
+                }
+            });
+        }
+        // The coordinator only reads complete parts
+        Files.move(temp, part, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EmployeeRowSource openSource(String source) {
+        if (source.startsWith(SYNTHETIC_SOURCE)) {
+            var parts = source.substring(SYNTHETIC_SOURCE.length()).split(":");
+            var rowCount = Long.parseLong(parts[0]);
+            if (parts.length == 1) {
+                return EmployeeRowSource.synthetic(rowCount);
+            }
+            return EmployeeRowSource.synthetic(rowCount, Arrays.stream(parts[1].split(",")).mapToInt(Integer::parseInt).toArray());
+        }
+        try {
+            var supplier = (Supplier<EmployeeRowSource>) Class.forName(source).getConstructor().newInstance();
+            return supplier.get();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Not a row source: " + source, e);
+        }
+    }
+
+    // Double.toString reads back to the same double, so the workers plan exactly the coordinator's layout
+    private static String formatGroup(StatusGroup group) {
+        return group.getStatus().name() + ":" + group.getRowCount() + ":" + group.getSubTotal();
+    }
+
+    private static StatusGroup parseGroup(String group) {
+        var fields = group.split(":");
+        return new StatusGroup(EmployeeStatus.valueOf(fields[0]), Long.parseLong(fields[1]), Double.parseDouble(fields[2]));
+    }
+
+    // In EmployeeColumn order, Float.toString reads back to the same float
+    private static String formatWidths(ColumnWidths columnWidths) {
+        return Arrays.stream(EmployeeColumn.values())
+                .map(column -> Float.toString(columnWidths.getWidth(column)))
+                .collect(Collectors.joining(","));
+    }
+
+    private static ColumnWidths parseWidths(String widths) {
+        var fields = widths.split(",");
+        var values = new float[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = Float.parseFloat(fields[i]);
+        }
+        return ColumnWidths.of(values);
+    }
+
+    private static Path temp(Path part) {
+        return part.resolveSibling(part.getFileName() + ".tmp");
+    }
+
+    public static final class Builder {
+        private final String source;
+        private List<EmployeeColumn> columns = List.of(EmployeeColumn.values());
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private LocalDate reportDate;
+        private Path partDirectory;
+        private List<String> jvmOptions = List.of();
+
+        private Builder(String source) {
+            if (source == null || source.isEmpty()) {
+                throw new IllegalArgumentException("A sharded report needs a row source");
+            }
+            this.source = source;
+        }
+
+        public Builder columns(List<EmployeeColumn> columns) {
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("The report needs at least one column");
+            }
+            this.columns = List.copyOf(columns);
+            return this;
+        }
+
+        /**
+         * Number of worker JVMs, each drawing one shard. Defaults to the number of processors.
+         */
+        public Builder workers(int workers) {
+            if (workers < 1) {
+                throw new IllegalArgumentException("Need at least one worker: " + workers);
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Date printed in the header, the day the report is generated by default.
+         */
+        public Builder reportDate(LocalDate reportDate) {
+            this.reportDate = reportDate;
+            return this;
+        }
+
+        /**
+         * Where the workers put their parts, a new temporary directory by default. Parts are deleted once merged.
+         */
+        public Builder partDirectory(Path partDirectory) {
+            this.partDirectory = partDirectory;
+            return this;
+        }
+
+        /**
+         * Options for the worker JVMs, e.g. {@code -Xmx512m}.
+         */
+        public Builder jvmOptions(List<String> jvmOptions) {
+            this.jvmOptions = List.copyOf(jvmOptions);
+            return this;
+        }
+
+        public ShardedReport build() {
+            return new ShardedReport(this);
+        }
+    }
+
+    private static final class Shard {
+        private final int fromPage;
+        private final int toPage;
+        private final Path part;
+        private final Process process;
+
+        private Shard(int fromPage, int toPage, Path part, Process process) {
+            this.fromPage = fromPage;
+            this.toPage = toPage;
+            this.part = part;
+            this.process = process;
+        }
+    }
+
+    /**
+     * The page bodies of all shards in page order, opening the part of a shard once its worker has exited.
+     */
+    private static final class Parts implements Pdfbox.PageBodies, Closeable {
+        private final List<Shard> shards;
+        private int nextShard;
+        private DataInputStream part;
+        private int remainingPages;
+
+        private Parts(List<Shard> shards) {
+            this.shards = shards;
+        }
+
+        @Override
+        public byte[] next() throws IOException {
+            while (remainingPages == 0) {
+                close();
+                open(shards.get(nextShard++));
+            }
+            remainingPages--;
+            var body = new byte[part.readInt()];
+            part.readFully(body);
+            return body;
+        }
+
+        private void open(Shard shard) throws IOException {
+            int exitCode;
+            try {
+                exitCode = shard.process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the worker of pages " + shard.fromPage + "-" + shard.toPage);
+            }
+            if (exitCode != 0) {
+                throw new IOException(String.format("The worker of pages %d-%d failed with exit code %d", shard.fromPage, shard.toPage, exitCode));
+            }
+
+            part = new DataInputStream(new BufferedInputStream(Files.newInputStream(shard.part), 64 * 1024));
+            var pageCount = shard.toPage - shard.fromPage + 1;
+            if (part.readInt() != PART_FORMAT || part.readInt() != pageCount) {
+                throw new IOException(String.format("The part of pages %d-%d is not a part of %d pages", shard.fromPage, shard.toPage, pageCount));
+            }
+            remainingPages = pageCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (part != null) {
+                part.close();
+                part = null;
+            }
+        }
+    }
+}
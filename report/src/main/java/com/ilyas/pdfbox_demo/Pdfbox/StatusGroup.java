@@ -0,0 +1,52 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Size and sub-total of the rows sharing one {@link EmployeeStatus}.
+ */
+public final class StatusGroup {
+    private final EmployeeStatus status;
+
+    private final long rowCount;
+
+    private final double subTotal;
+
+    public StatusGroup(EmployeeStatus status, long rowCount, double subTotal) {
+        this.status = status;
+        this.rowCount = rowCount;
+        this.subTotal = subTotal;
+    }
+
+    /**
+     * Status groups from an aggregation whose first key is {@link EmployeeColumn#STATUS}.
+     *
+     * @throws IllegalStateException if the rows of a status are not delivered together
+     */
+    public static List<StatusGroup> of(Aggregate byStatus) {
+        var groups = new ArrayList<StatusGroup>();
+        for (var group : byStatus.getChildren()) {
+            if (group.getKey() != EmployeeColumn.STATUS) {
+                throw new IllegalArgumentException("Not grouped by status: " + group.getKey());
+            }
+            if (!group.isContiguous()) {
+                throw new IllegalStateException(String.format("Rows are not grouped by status, %s appeared twice", group.getValue()));
+            }
+            groups.add(new StatusGroup((EmployeeStatus) group.getValue(), group.getRowCount(), group.getSum()));
+        }
+        return groups;
+    }
+
+    public EmployeeStatus getStatus() {
+        return status;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public double getSubTotal() {
+        return subTotal;
+    }
+}
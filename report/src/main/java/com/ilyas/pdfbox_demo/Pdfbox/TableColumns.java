@@ -0,0 +1,49 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import java.util.List;
+
+/**
+ * Columns of one report table with the widths they were given, from the left edge of the table on.
+ */
+final class TableColumns {
+
+    private final List<EmployeeColumn> columns;
+
+    // Left edge of every column, and the right edge of the table last
+    private final float[] edges;
+
+    TableColumns(List<EmployeeColumn> columns, float left, float[] widths) {
+        if (widths.length != columns.size()) {
+            throw new IllegalArgumentException(String.format("Expected %d column widths, got %d", columns.size(), widths.length));
+        }
+        this.columns = List.copyOf(columns);
+        this.edges = new float[widths.length + 1];
+        edges[0] = left;
+        for (int i = 0; i < widths.length; i++) {
+            edges[i + 1] = edges[i] + widths[i];
+        }
+    }
+
+    List<EmployeeColumn> getColumns() {
+        return columns;
+    }
+
+    int size() {
+        return columns.size();
+    }
+
+    EmployeeColumn get(int column) {
+        return columns.get(column);
+    }
+
+    /**
+     * Left edge of {@code column}, or the right edge of the table for {@link #size()}.
+     */
+    float getLeft(int column) {
+        return edges[column];
+    }
+
+    float getWidth(int column) {
+        return edges[column + 1] - edges[column];
+    }
+}
@@ -0,0 +1,167 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Text widths in one font and size, added up from glyph advances kept in arrays indexed by character. Each block of
+ * 256 characters is looked up in the PDFBox font metrics once, when the first of them is measured; after that a text
+ * is measured with one array read per character, so every cell of a large report can be measured.
+ * <p>
+ * Instances are shared by all reports through {@link #of(PDFont, float)} and can be used from any thread.
+ */
+public final class TextMeasure {
+
+    private static final String ELLIPSIS = "\u2026";
+    private static final int BLOCK_BITS = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    // Shortened texts remembered per width, and widths remembered by an instance; a memo starts over when it is full
+    private static final int MAX_SHORTENED = 4096;
+    private static final int MAX_WIDTHS = 64;
+
+    private static final Map<String, TextMeasure> INSTANCES = new ConcurrentHashMap<>();
+
+    private final PDFont font;
+    private final float fontSize;
+    private final AtomicReferenceArray<float[]> blocks = new AtomicReferenceArray<>((Character.MAX_VALUE + 1) >> BLOCK_BITS);
+    private final Map<Float, Map<String, String>> shortened = new ConcurrentHashMap<>();
+    private final float ellipsisWidth;
+
+    private TextMeasure(PDFont font, float fontSize) {
+        this.font = font;
+        this.fontSize = fontSize;
+        this.ellipsisWidth = width(ELLIPSIS);
+    }
+
+    public static TextMeasure of(PDFont font, float fontSize) {
+        return INSTANCES.computeIfAbsent(font.getName() + ' ' + fontSize, key -> new TextMeasure(font, fontSize));
+    }
+
+    public float width(String text) {
+        float width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += advance(text.charAt(i));
+        }
+        return width;
+    }
+
+    /**
+     * Width of single byte text, e.g. an amount written by {@link MoneyFormat}.
+     */
+    public float width(byte[] text, int offset, int length) {
+        float width = 0;
+        for (int i = offset; i < offset + length; i++) {
+            width += advance((char) (text[i] & 0xff));
+        }
+        return width;
+    }
+
+    /**
+     * Width of {@code number} written in decimal digits, e.g. a page number.
+     */
+    public float width(long number) {
+        float width = 0;
+        if (number < 0) {
+            width += advance('-');
+        }
+        do {
+            width += advance((char) ('0' + Math.abs(number % 10)));
+            number /= 10;
+        } while (number != 0);
+        return width;
+    }
+
+    /**
+     * Returns {@code text} if it is at most {@code maxWidth} wide, otherwise the longest start of it that fits
+     * together with an ellipsis. Shortened texts are remembered for every width, i.e. column, so a long value
+     * repeated on many rows is only shortened once per column; texts that fit are returned as they are, measuring them
+     * costs less than looking them up.
+     */
+    public String fit(String text, float maxWidth) {
+        if (width(text) <= maxWidth) {
+            return text;
+        }
+        var texts = shortened.get(maxWidth);
+        if (texts == null) {
+            if (shortened.size() >= MAX_WIDTHS) {
+                shortened.clear();
+            }
+            texts = shortened.computeIfAbsent(maxWidth, width -> new ConcurrentHashMap<>());
+        }
+        var known = texts.get(text);
+        if (known != null) {
+            return known;
+        }
+        var result = shorten(text, maxWidth);
+        if (texts.size() >= MAX_SHORTENED) {
+            texts.clear();
+        }
+        texts.put(text, result);
+        return result;
+    }
+
+    private String shorten(String text, float maxWidth) {
+        var available = maxWidth - ellipsisWidth;
+        if (available < 0) {
+            return "";
+        }
+        float width = 0;
+        int end = 0;
+        while (end < text.length() && width + advance(text.charAt(end)) <= available) {
+            width += advance(text.charAt(end));
+            end++;
+        }
+        // Neither split a surrogate pair nor leave a space before the ellipsis
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        while (end > 0 && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return text.substring(0, end) + ELLIPSIS;
+    }
+
+    private float advance(char c) {
+        var block = blocks.get(c >>> BLOCK_BITS);
+        if (block == null) {
+            block = loadBlock(c >>> BLOCK_BITS);
+        }
+        return block[c & (BLOCK_SIZE - 1)];
+    }
+
+    // PDFont caches glyph encodings in plain maps, so the blocks of all sizes of a font are loaded one at a time
+    private float[] loadBlock(int index) {
+        synchronized (font) {
+            var block = blocks.get(index);
+            if (block != null) {
+                return block;
+            }
+            block = new float[BLOCK_SIZE];
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                block[i] = glyphWidth((char) ((index << BLOCK_BITS) | i)) / 1000 * fontSize;
+            }
+            blocks.set(index, block);
+            return block;
+        }
+    }
+
+    // Characters the font can't encode measure 0, drawing them fails anyway
+    private float glyphWidth(char c) {
+        if (Character.isSurrogate(c)) {
+            return 0;
+        }
+        try {
+            return font.getStringWidth(String.valueOf(c));
+        } catch (IllegalArgumentException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnWidthsTest {
+
+    @Test
+    void planningReadsTheRowsOnce() {
+        var table = EmployeeRowSource.synthetic(20_000, 3, 2, 1);
+        var opened = new AtomicInteger();
+        // A plain cursor, so nothing can be read without opening it
+        EmployeeRowSource cursor = () -> {
+            opened.incrementAndGet();
+            return table.open();
+        };
+
+        var layout = Pdfbox.planReportTable(cursor);
+        assertEquals(1, opened.getAndSet(0));
+        var bySummary = Pdfbox.planReportTable(cursor, List.of(EmployeeColumn.STATUS, EmployeeColumn.ACCOUNT_TYPE_NAME));
+        assertEquals(1, opened.getAndSet(0));
+        var byAccountType = Pdfbox.planReportTable(cursor, List.of(EmployeeColumn.ACCOUNT_TYPE_NAME));
+        assertEquals(1, opened.get());
+
+        var groups = table.summarizeByStatus();
+        var widths = Pdfbox.measureColumns(table);
+        for (var planned : List.of(layout, bySummary, byAccountType)) {
+            assertGroups(groups, planned.getGroups());
+            for (var column : EmployeeColumn.values()) {
+                assertEquals(widths.getWidth(column), planned.getColumnWidths().getWidth(column), column.name());
+            }
+        }
+    }
+
+    @Test
+    void measuresInParallelLikeInOnePass() {
+        // More rows than one task aggregates, so the meters of several tasks are merged
+        var table = EmployeeRowSource.synthetic(300_000, 1, 1, 1);
+        var meter = new ColumnWidths.Meter(TextMeasure.of(PDType1Font.HELVETICA_BOLD, 8f), new MoneyFormat(Locale.US, 2));
+
+        ReportAggregator.aggregate(table, List.of(List.of(EmployeeColumn.STATUS)), meter);
+
+        var widths = Pdfbox.measureColumns(table);
+        var measured = meter.toColumnWidths();
+        for (var column : EmployeeColumn.values()) {
+            assertEquals(widths.getWidth(column), measured.getWidth(column), column.name());
+        }
+    }
+
+    @Test
+    void narrowsTheWidestColumnsToFit() {
+        var widths = new float[]{40, 120, 90, 100};
+
+        Pdfbox.fitWidths(widths, 3, 300);
+
+        assertArrayEquals(new float[]{40, 80, 80, 100}, widths, 1e-4f);
+    }
+
+    @Test
+    void sharesOutSpareRoom() {
+        var widths = new float[]{40, 60, 100};
+
+        Pdfbox.fitWidths(widths, 2, 230);
+
+        assertArrayEquals(new float[]{50, 70, 110}, widths, 1e-4f);
+    }
+
+    @Test
+    void keepsRoomForTheOtherColumnsWhenTheAmountsAreTooWide() {
+        var widths = new float[]{60, 60, 60, 600};
+
+        Pdfbox.fitWidths(widths, 3, 300);
+
+        var minimum = widths[0];
+        assertTrue(minimum > 10, "Other columns squeezed to " + minimum);
+        assertEquals(minimum, widths[1]);
+        assertEquals(minimum, widths[2]);
+        assertEquals(300, widths[0] + widths[1] + widths[2] + widths[3], 1e-3f);
+    }
+
+    @Test
+    void keepsNarrowColumnsWhenTheAmountsAreTooWide() {
+        var widths = new float[]{4, 4, 600};
+
+        Pdfbox.fitWidths(widths, 2, 300);
+
+        assertArrayEquals(new float[]{4, 4, 292}, widths, 1e-4f);
+    }
+
+    private static void assertGroups(List<StatusGroup> expected, List<StatusGroup> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStatus(), actual.get(i).getStatus());
+            assertEquals(expected.get(i).getRowCount(), actual.get(i).getRowCount());
+            assertEquals(expected.get(i).getSubTotal(), actual.get(i).getSubTotal(), 1e-6);
+        }
+    }
+}
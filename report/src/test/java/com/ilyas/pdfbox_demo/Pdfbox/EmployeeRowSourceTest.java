@@ -0,0 +1,96 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeRowSourceTest {
+
+    @Test
+    void tableGroupsRowsByStatusInTheirOrder() {
+        var rows = List.of(
+                new Employee("A", "A", "CORPORATE", "a", EmployeeStatus.INACTIVE, 1),
+                new Employee("B", "B", "CORPORATE", "b", EmployeeStatus.ACTIVE, 2),
+                new Employee("C", "C", "PREFERRED", "c", EmployeeStatus.INACTIVE, 3),
+                new Employee("D", "D", "PREFERRED", "d", EmployeeStatus.ACTIVE, 4));
+
+        var source = EmployeeRowSource.of(rows);
+
+        assertEquals(4, source.rowCount());
+        assertEquals(List.of("B", "D", "A", "C"), firstNames(source.open()));
+        assertEquals(List.of("A", "C"), firstNames(source.open(2)));
+    }
+
+    @Test
+    void syntheticRowsFollowTheStatusWeights() {
+        var source = EmployeeRowSource.synthetic(1000, 2, 1, 1);
+
+        var groups = source.summarizeByStatus();
+
+        assertEquals(1000, source.rowCount());
+        assertEquals(3, groups.size());
+        assertEquals(EmployeeStatus.ACTIVE, groups.get(0).getStatus());
+        assertEquals(500, groups.get(0).getRowCount());
+        assertEquals(250, groups.get(1).getRowCount());
+        assertEquals(250, groups.get(2).getRowCount());
+    }
+
+    @Test
+    void syntheticCursorsSeek() {
+        var source = EmployeeRowSource.synthetic(100);
+        var skipped = source.open();
+        for (int i = 0; i < 70; i++) {
+            skipped.next();
+        }
+        var seeked = source.open(70);
+        while (skipped.hasNext()) {
+            var expected = skipped.next();
+            var row = seeked.next();
+            assertEquals(expected.getFirstName(), row.getFirstName());
+            assertEquals(expected.getStatus(), row.getStatus());
+            assertEquals(expected.getBalance(), row.getBalance());
+        }
+        assertFalse(seeked.hasNext());
+    }
+
+    @Test
+    void rejectsInvalidSyntheticSources() {
+        assertThrows(IllegalArgumentException.class, () -> EmployeeRowSource.synthetic(-1));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeRowSource.synthetic(10, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeRowSource.synthetic(10, 0, 0, 0));
+    }
+
+    @Test
+    void cursorOnlySourceRendersTheSameReport() throws IOException {
+        var table = EmployeeRowSource.synthetic(5000, 3, 2, 1);
+        // Neither knows its row count nor seeks, like a plain database cursor
+        EmployeeRowSource cursor = table::open;
+
+        assertArrayEquals(write(table), write(cursor));
+    }
+
+    private static byte[] write(EmployeeRowSource rowSource) throws IOException {
+        var out = new ByteArrayOutputStream();
+        var layout = Pdfbox.planReportTable(rowSource);
+        Pdfbox.writePdf(rowSource, List.of(EmployeeColumn.values()), layout, LocalDate.of(2024, 1, 2), 1, layout.getPageCount(), 1, out);
+        return out.toByteArray();
+    }
+
+    private static List<String> firstNames(Iterator<EmployeeRow> rows) {
+        var names = new ArrayList<String>();
+        while (rows.hasNext()) {
+            names.add(rows.next().getFirstName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JmxReportMetricsTest {
+
+    @Test
+    void smallValuesHaveABucketEach() {
+        for (int value = 0; value < 8; value++) {
+            assertEquals(value, JmxReportMetrics.Histogram.bucket(value));
+            assertEquals(value, JmxReportMetrics.Histogram.highestValue(value));
+        }
+    }
+
+    @Test
+    void bucketsHoldTheirValuesWithin12Point5Percent() {
+        long[] values = {8, 9, 15, 16, 17, 100, 1000, 123_456_789, 1L << 40, Long.MAX_VALUE};
+        for (var value : values) {
+            var bucket = JmxReportMetrics.Histogram.bucket(value);
+            var highest = JmxReportMetrics.Histogram.highestValue(bucket);
+            var lowest = JmxReportMetrics.Histogram.highestValue(bucket - 1) + 1;
+            assertTrue(lowest <= value && value <= highest, () -> value + " outside " + lowest + "-" + highest);
+            assertTrue(highest - lowest + 1 <= Math.max(1, lowest / 8), () -> "Bucket of " + value + " too wide");
+        }
+    }
+
+    @Test
+    void bucketsFollowEachOther() {
+        for (int bucket = 1; bucket <= JmxReportMetrics.Histogram.bucket(Long.MAX_VALUE); bucket++) {
+            var lowest = JmxReportMetrics.Histogram.highestValue(bucket - 1) + 1;
+            assertEquals(bucket, JmxReportMetrics.Histogram.bucket(lowest));
+            assertEquals(bucket, JmxReportMetrics.Histogram.bucket(JmxReportMetrics.Histogram.highestValue(bucket)));
+        }
+    }
+
+    @Test
+    void percentilesAreWithinABucketOfTheExactValue() {
+        var histogram = new JmxReportMetrics.Histogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        var percentiles = histogram.percentiles(1);
+        assertBetween(500, percentiles.get("p50"));
+        assertBetween(900, percentiles.get("p90"));
+        assertBetween(990, percentiles.get("p99"));
+        assertEquals(1000.0, percentiles.get("max"));
+    }
+
+    private static void assertBetween(double exact, double percentile) {
+        assertTrue(percentile >= exact && percentile <= exact * 1.125, () -> percentile + " for " + exact);
+    }
+}
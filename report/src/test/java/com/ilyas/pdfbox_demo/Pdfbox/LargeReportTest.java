@@ -0,0 +1,28 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs in a JVM of its own with a 32 MB heap, see the {@code fixed-heap} execution in the pom: a report holds its
+ * layout and the pages being rendered, never all pages, so it renders any number of rows in that heap.
+ */
+@Tag("fixed-heap")
+class LargeReportTest {
+
+    @Test
+    void rendersFiveMillionRowsInAFixedHeap() throws IOException {
+        assertTrue(Runtime.getRuntime().maxMemory() <= 64L << 20, "Run with -Xmx32m");
+
+        var pages = Pdfbox.writePdf(EmployeeRowSource.synthetic(5_000_000), List.of(EmployeeColumn.values()), OutputStream.nullOutputStream());
+
+        assertEquals(166_667, pages);
+    }
+}
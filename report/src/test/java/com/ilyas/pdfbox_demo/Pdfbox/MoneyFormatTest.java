@@ -0,0 +1,75 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyFormatTest {
+
+    private static final MoneyFormat US = new MoneyFormat(Locale.US, 2);
+
+    @Test
+    void groupsThousandsAndPadsTheScale() {
+        assertEquals("0.00", US.format(0));
+        assertEquals("999.50", US.format(999.5));
+        assertEquals("1,000.00", US.format(1000));
+        assertEquals("1,234,567.50", US.format(1234567.5));
+        assertEquals("-1,234.05", US.format(-1234.05));
+    }
+
+    @Test
+    void roundsHalfUpByTheDecimalValue() {
+        // The nearest doubles are slightly below these midpoints
+        assertEquals("1.01", US.format(1.005));
+        assertEquals("2.68", US.format(2.675));
+        assertEquals("1,000.01", US.format(1000.005));
+        assertEquals("-1.01", US.format(-1.005));
+        assertEquals("0.12", US.format(0.12499));
+    }
+
+    @Test
+    void dropsTheSignOfAmountsThatRoundToZero() {
+        assertEquals("0.00", US.format(-0.004));
+        assertEquals("0.00", US.format(-0.0));
+    }
+
+    @Test
+    void matchesBigDecimalHalfUp() {
+        var random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Whole thousandths hit the midpoints, random doubles everything in between
+            var amount = i % 2 == 0 ? random.nextInt(10_000_000) / 1000.0 : random.nextDouble() * 1e9 - 5e8;
+            var expected = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(String.format(Locale.US, "%,.2f", expected), US.format(amount), () -> "Amount " + amount);
+        }
+    }
+
+    @Test
+    void usesTheSeparatorsOfTheLocale() {
+        assertEquals("1.234.567,89", new MoneyFormat(Locale.GERMANY, 2).format(1234567.891));
+        assertEquals("1,235", new MoneyFormat(Locale.US, 0).format(1234.5));
+    }
+
+    @Test
+    void writesIntoTheBufferFromTheOffset() {
+        var buffer = new byte[2 + MoneyFormat.MAX_LENGTH];
+        var end = US.format(12.5, buffer, 2);
+        assertEquals(7, end);
+        assertEquals("12.50", new String(buffer, 2, end - 2, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void rejectsAmountsItCannotWrite() {
+        assertThrows(IllegalArgumentException.class, () -> US.format(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> US.format(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> US.format(1e17));
+        assertThrows(IllegalArgumentException.class, () -> new MoneyFormat(Locale.US, 19));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageContentWriterTest {
+
+    private static final Map<PDFont, COSName> FONTS = Map.of(PDType1Font.HELVETICA, COSName.getPDFName("F1"));
+
+    @Test
+    void rejectsControlCharacters() {
+        for (var text : new String[]{"Tab\there", "Line\nbreak", "Bell\u0007", "Delete\u007f", "Null\u0000"}) {
+            var writer = writer();
+            writer.beginShowText(10, 10);
+            assertThrows(IllegalArgumentException.class, () -> writer.appendText(text), text);
+        }
+    }
+
+    @Test
+    void writesPrintableAsciiAndEncodesTheRest() throws IOException {
+        var plain = writer();
+        plain.showTextAt(10, 10, "Jos (e)");
+        var accented = writer();
+        accented.showTextAt(10, 10, "José(e)");
+
+        // A parenthesis is escaped, é is one byte in WinAnsiEncoding
+        assertEquals(plain.size(), accented.size());
+    }
+
+    private static PageContentWriter writer() {
+        var writer = new PageContentWriter(FONTS);
+        writer.setFont(PDType1Font.HELVETICA, 8f);
+        return writer;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelRenderingTest {
+
+    private static final List<EmployeeColumn> COLUMNS = List.of(EmployeeColumn.values());
+
+    @Test
+    void parallelOutputIsTheSameAsSequential() throws IOException {
+        var rowSource = EmployeeRowSource.synthetic(20_000, 5, 3, 2);
+        var layout = Pdfbox.planReportTable(rowSource);
+        // Many chunks of pages, so they finish out of order
+        assertTrue(layout.getPageCount() > 8 * 64);
+
+        var sequential = write(rowSource, layout, 1, layout.getPageCount(), 1);
+
+        assertArrayEquals(sequential, write(rowSource, layout, 1, layout.getPageCount(), 4));
+        assertArrayEquals(sequential, write(rowSource, layout, 1, layout.getPageCount(), 7));
+    }
+
+    @Test
+    void parallelPageRangeIsTheSameAsSequential() throws IOException {
+        var rowSource = EmployeeRowSource.synthetic(20_000);
+        var layout = Pdfbox.planReportTable(rowSource);
+
+        assertArrayEquals(write(rowSource, layout, 100, 400, 1), write(rowSource, layout, 100, 400, 3));
+    }
+
+    private static byte[] write(EmployeeRowSource rowSource, ReportLayout layout, int fromPage, int toPage, int parallelism) throws IOException {
+        var out = new ByteArrayOutputStream();
+        Pdfbox.writePdf(rowSource, COLUMNS, layout, LocalDate.of(2024, 1, 2), fromPage, toPage, parallelism, out);
+        return out.toByteArray();
+    }
+}
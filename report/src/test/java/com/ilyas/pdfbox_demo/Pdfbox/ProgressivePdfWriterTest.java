@@ -0,0 +1,86 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProgressivePdfWriterTest {
+
+    private static final Map<PDFont, COSName> FONTS = Map.of(PDType1Font.HELVETICA, COSName.getPDFName("F1"));
+
+    @Test
+    void crossReferenceTablePointsAtEveryObject() throws IOException {
+        var pdf = write(3);
+        var text = new String(pdf, StandardCharsets.ISO_8859_1);
+
+        var startxref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(text);
+        assertTrue(startxref.find());
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(text.startsWith("xref\n0 ", xref));
+
+        var header = text.substring(xref).split("\n", 3);
+        int objectCount = Integer.parseInt(header[1].split(" ")[1]);
+        var entries = header[2];
+        assertTrue(entries.startsWith("0000000000 65535 f\r\n"));
+        for (int object = 1; object < objectCount; object++) {
+            // Entries are exactly 20 bytes long
+            var entry = entries.substring(object * 20, object * 20 + 20);
+            assertTrue(entry.endsWith(" 00000 n\r\n"), entry);
+            int offset = Integer.parseInt(entry.substring(0, 10));
+            assertTrue(text.startsWith(object + " 0 obj\n", offset), "Object " + object + " is not at " + offset);
+        }
+        assertTrue(entries.startsWith("trailer\n<< /Size " + objectCount + " ", objectCount * 20));
+    }
+
+    @Test
+    void writesADocumentPdfBoxReads() throws IOException {
+        var pdf = write(12);
+        try (var document = PDDocument.load(pdf)) {
+            assertEquals(12, document.getNumberOfPages());
+            var stripper = new PDFTextStripper();
+            stripper.setStartPage(12);
+            stripper.setEndPage(12);
+            assertEquals("Page 12", stripper.getText(document).trim());
+        }
+    }
+
+    @Test
+    void countsTheBytesWritten() throws IOException {
+        var out = new ByteArrayOutputStream();
+        var writer = new ProgressivePdfWriter(out, PDRectangle.A4, FONTS, Map.of());
+        writer.addPage(content(1), content(1));
+        writer.finish();
+        assertEquals(1, writer.getPageCount());
+        assertEquals(out.size(), writer.getBytesWritten());
+    }
+
+    private static byte[] write(int pages) throws IOException {
+        var out = new ByteArrayOutputStream();
+        var writer = new ProgressivePdfWriter(out, PDRectangle.A4, FONTS, Map.of());
+        for (int page = 1; page <= pages; page++) {
+            writer.addPage(content(page));
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static byte[] content(int page) throws IOException {
+        var content = new PageContentWriter(FONTS);
+        content.setFont(PDType1Font.HELVETICA, 12);
+        content.showTextAt(72, 720, "Page " + page);
+        return content.toFlateEncoded();
+    }
+}
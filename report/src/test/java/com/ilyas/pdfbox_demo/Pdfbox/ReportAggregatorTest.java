@@ -0,0 +1,87 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReportAggregatorTest {
+
+    private static final List<EmployeeColumn> KEYS = List.of(EmployeeColumn.STATUS, EmployeeColumn.ACCOUNT_TYPE_NAME);
+
+    @Test
+    void sumsEveryGroup() {
+        var rows = List.of(
+                new Employee("Karim", "Douglas", "CORPORATE", "kd", EmployeeStatus.ACTIVE, 100.25),
+                new Employee("Keron", "Levy", "PREFERRED", "kl", EmployeeStatus.ACTIVE, 50.50),
+                new Employee("Tracey", "Smart", "CORPORATE", "ts", EmployeeStatus.ACTIVE, 10.00),
+                new Employee("Akalia", "Edwards", "PREFERRED", "ae", EmployeeStatus.INACTIVE, -20.75));
+
+        var total = ReportAggregator.aggregate(EmployeeRowSource.of(rows), KEYS);
+
+        assertNull(total.getKey());
+        assertEquals(4, total.getRowCount());
+        assertEquals(140.00, total.getSum(), 1e-9);
+        assertEquals(-20.75, total.getMin());
+        assertEquals(100.25, total.getMax());
+        assertEquals(35.00, total.getAverage(), 1e-9);
+
+        var active = total.getChildren().get(0);
+        assertEquals(EmployeeStatus.ACTIVE, active.getValue());
+        assertEquals(3, active.getRowCount());
+        assertEquals(160.75, active.getSum(), 1e-9);
+        var corporate = active.getChildren().get(0);
+        assertEquals("CORPORATE", corporate.getValue());
+        assertEquals(2, corporate.getRowCount());
+        assertEquals(110.25, corporate.getSum(), 1e-9);
+
+        var inactive = total.getChildren().get(1);
+        assertEquals(EmployeeStatus.INACTIVE, inactive.getValue());
+        assertEquals(-20.75, inactive.getSum(), 1e-9);
+    }
+
+    @Test
+    void sumsExactlyToTheCentOverManyRows() {
+        // 0.10 has no exact double, plain addition of a million of them drifts away from 100,000.00
+        var rows = new ArrayList<Employee>();
+        for (int i = 0; i < 1_000_000; i++) {
+            rows.add(new Employee("F", "L", "CORPORATE", "a", EmployeeStatus.values()[i % 3], 0.10));
+        }
+        var total = ReportAggregator.aggregate(EmployeeRowSource.of(rows), KEYS);
+        assertEquals("100,000.00", new MoneyFormat(Locale.US, 2).format(total.getSum()));
+        assertEquals(100_000.0, total.getSum(), 1e-6);
+    }
+
+    @Test
+    void givesTheSameSumsOnAnyNumberOfThreads() {
+        var rowSource = EmployeeRowSource.synthetic(500_000, 5, 3, 2);
+        var pool = new ForkJoinPool(1);
+        try {
+            assertSameSums(ReportAggregator.aggregate(rowSource, KEYS, pool), ReportAggregator.aggregate(rowSource, KEYS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsTheBalanceAsAKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReportAggregator.aggregate(EmployeeRowSource.synthetic(10), List.of(EmployeeColumn.BALANCE)));
+    }
+
+    private static void assertSameSums(Aggregate expected, Aggregate actual) {
+        assertEquals(expected.getValue(), actual.getValue());
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+        assertEquals(expected.getSum(), actual.getSum());
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertSameSums(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportCacheTest {
+
+    private static final LocalDate REPORT_DATE = LocalDate.of(2024, 1, 2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void generatesOnAMissAndCopiesOnAHit() throws IOException {
+        var cache = ReportCache.builder(directory).build();
+        var rowSource = EmployeeRowSource.synthetic(2000);
+
+        var first = write(cache, rowSource);
+        var second = write(cache, rowSource);
+
+        assertArrayEquals(generate(rowSource), first);
+        assertArrayEquals(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(first.length, cache.getCachedBytes());
+    }
+
+    @Test
+    void picksUpTheReportsInTheDirectory() throws IOException {
+        var rowSource = EmployeeRowSource.synthetic(2000);
+        var first = write(ReportCache.builder(directory).build(), rowSource);
+
+        var cache = ReportCache.builder(directory).build();
+
+        assertArrayEquals(first, write(cache, rowSource));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void generatesAgainWhenTheFileWasDeleted() throws IOException {
+        var cache = ReportCache.builder(directory).build();
+        var rowSource = EmployeeRowSource.synthetic(2000);
+        var first = write(cache, rowSource);
+        for (var file : pdfFiles()) {
+            Files.delete(file);
+        }
+
+        var second = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> write(cache, rowSource));
+
+        assertArrayEquals(first, second);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(second.length, cache.getCachedBytes());
+        assertEquals(1, pdfFiles().size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedReports() throws IOException {
+        var cache = ReportCache.builder(directory).maxBytes(1).build();
+
+        write(cache, EmployeeRowSource.synthetic(1000));
+        var second = write(cache, EmployeeRowSource.synthetic(2000));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(second.length, cache.getCachedBytes());
+        assertEquals(1, pdfFiles().size());
+
+        write(cache, EmployeeRowSource.synthetic(1000));
+        assertEquals(3, cache.getMissCount());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void requestsForAReportBeingGeneratedWaitForIt() throws Exception {
+        var cache = ReportCache.builder(directory).build();
+        var rows = EmployeeRowSource.synthetic(2000);
+        var generating = new CountDownLatch(1);
+        var generator = new Thread[1];
+        // The generating request holds on after computing the key until the other one waits for it
+        EmployeeRowSource rowSource = new EmployeeRowSource() {
+            private int opens;
+
+            @Override
+            public Iterator<EmployeeRow> open() {
+                if (Thread.currentThread() == generator[0] && ++opens == 2) {
+                    generating.countDown();
+                    awaitCoalesced(cache);
+                }
+                return rows.open();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            var thread = new Thread(runnable);
+            if (generator[0] == null) {
+                generator[0] = thread;
+            }
+            return thread;
+        });
+        try {
+            var first = executor.submit(() -> write(cache, rowSource));
+            assertTrue(generating.await(30, TimeUnit.SECONDS));
+            var second = executor.submit(() -> write(cache, rowSource));
+
+            assertArrayEquals(first.get(30, TimeUnit.SECONDS), second.get(30, TimeUnit.SECONDS));
+            assertEquals(1, cache.getMissCount());
+            assertEquals(1, cache.getCoalescedCount());
+            assertEquals(1, pdfFiles().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitCoalesced(ReportCache cache) {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (cache.getCoalescedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static byte[] write(ReportCache cache, EmployeeRowSource rowSource) throws IOException {
+        var out = new ByteArrayOutputStream();
+        cache.write(ReportJob.builder(rowSource).reportDate(REPORT_DATE).output(out).build());
+        return out.toByteArray();
+    }
+
+    private static byte[] generate(EmployeeRowSource rowSource) throws IOException {
+        var out = new ByteArrayOutputStream();
+        Pdfbox.writeReport(ReportJob.builder(rowSource).output(out).build(), REPORT_DATE, out);
+        return out.toByteArray();
+    }
+
+    private List<Path> pdfFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".pdf")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportFragmentsTest {
+
+    private static final List<EmployeeColumn> COLUMNS = List.of(EmployeeColumn.values());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void secondRunReusesEveryGroup() throws IOException {
+        var rowSource = EmployeeRowSource.of(employees(900, -1));
+
+        var first = ReportFragments.open(directory);
+        var rendered = write(rowSource, first);
+        assertEquals(0, first.getReusedGroupCount());
+        assertEquals(3, first.getRenderedGroupCount());
+
+        var second = ReportFragments.open(directory);
+        assertArrayEquals(rendered, write(rowSource, second));
+        assertEquals(3, second.getReusedGroupCount());
+        assertEquals(0, second.getRenderedGroupCount());
+        assertEquals(first.getRenderedPageCount(), second.getReusedPageCount());
+    }
+
+    @Test
+    void rendersOnlyTheGroupThatChanged() throws IOException {
+        write(EmployeeRowSource.of(employees(900, -1)), ReportFragments.open(directory));
+        // Same digits in another order, so the columns keep their widths
+        var changed = EmployeeRowSource.of(employees(900, 2));
+
+        var fragments = ReportFragments.open(directory);
+        var incremental = write(changed, fragments);
+
+        assertEquals(2, fragments.getReusedGroupCount());
+        assertEquals(1, fragments.getRenderedGroupCount());
+        assertArrayEquals(write(changed, ReportFragments.open(directory.resolve("fresh"))), incremental);
+    }
+
+    private static List<Employee> employees(int count, int changedRow) {
+        var statuses = EmployeeStatus.values();
+        var employees = new ArrayList<Employee>(count);
+        for (int i = 0; i < count; i++) {
+            var balance = i == changedRow ? 6543.21 : 1234.56;
+            employees.add(new Employee("First" + i, "Last" + i, "CORPORATE", "alias" + i, statuses[i % statuses.length], balance));
+        }
+        return employees;
+    }
+
+    private static byte[] write(EmployeeRowSource rowSource, ReportFragments fragments) throws IOException {
+        var out = new ByteArrayOutputStream();
+        Pdfbox.writePdf(rowSource, COLUMNS, LocalDate.of(2024, 1, 2), fragments, out);
+        return out.toByteArray();
+    }
+}
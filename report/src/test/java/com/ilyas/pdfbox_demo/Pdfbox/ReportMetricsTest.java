@@ -0,0 +1,86 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportMetricsTest {
+
+    private final Recording recording = new Recording();
+
+    @AfterEach
+    void resetMetrics() {
+        Pdfbox.setMetrics(ReportMetrics.NOOP);
+    }
+
+    @Test
+    void reportsEveryPlanningPhaseOnce() {
+        Pdfbox.setMetrics(recording);
+
+        Pdfbox.planReportTable(EmployeeRowSource.synthetic(1000));
+
+        assertEquals(1, recording.phases.get(ReportMetrics.Phase.SUMMARIZE));
+        assertEquals(1, recording.phases.get(ReportMetrics.Phase.PLAN));
+    }
+
+    @Test
+    void reportsTheRowsOfThePagesWritten() throws IOException {
+        var rowSource = EmployeeRowSource.synthetic(10_000, 3, 2, 1);
+        var layout = Pdfbox.planReportTable(rowSource);
+        Pdfbox.setMetrics(recording);
+
+        Pdfbox.writePdf(rowSource, List.of(EmployeeColumn.values()), layout, LocalDate.of(2024, 1, 2), 1, layout.getPageCount(), 2,
+                OutputStream.nullOutputStream());
+
+        assertEquals(10_000, recording.renderedRows);
+        assertEquals(10_000, recording.writtenRows);
+        assertEquals(layout.getPageCount(), recording.renderedPages);
+    }
+
+    @Test
+    void countsTheRowsOfAPageRange() {
+        var layout = Pdfbox.planReportTable(EmployeeRowSource.synthetic(10_000, 3, 2, 1));
+        long rows = 0;
+        for (var plannedPage : layout.getPages().subList(40, 200)) {
+            for (var line : plannedPage.getLines()) {
+                if (line.getType() == ReportLayout.LineType.ROWS) {
+                    rows += line.getRowCount();
+                }
+            }
+        }
+
+        assertEquals(rows, layout.getRowCount(41, 200));
+        assertEquals(layout.getRowCount(), layout.getRowCount(1, layout.getPageCount()));
+    }
+
+    private static final class Recording implements ReportMetrics {
+        private final Map<Phase, Integer> phases = new EnumMap<>(Phase.class);
+        private long renderedPages;
+        private long renderedRows;
+        private long writtenRows;
+
+        @Override
+        public synchronized void phaseCompleted(Phase phase, long nanos) {
+            phases.merge(phase, 1, Integer::sum);
+        }
+
+        @Override
+        public synchronized void pagesRendered(int pages, long rows, long contentBytes, long nanos) {
+            renderedPages += pages;
+            renderedRows += rows;
+        }
+
+        @Override
+        public synchronized void reportWritten(int pages, long rows, long outputBytes, long peakBufferedBytes, long nanos) {
+            writtenRows += rows;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportServiceTest {
+
+    private static final LocalDate REPORT_DATE = LocalDate.of(2024, 1, 2);
+
+    @Test
+    void writesTheSameReportAsPdfbox() throws Exception {
+        var rowSource = EmployeeRowSource.synthetic(2000);
+        var out = new ByteArrayOutputStream();
+        try (var service = ReportService.builder().maxConcurrentJobs(2).build()) {
+            var pages = service.submit(job(rowSource, out).build()).get(30, TimeUnit.SECONDS);
+
+            var expected = new ByteArrayOutputStream();
+            assertEquals(Pdfbox.writeReport(job(rowSource, expected).build(), REPORT_DATE, expected), pages);
+            assertArrayEquals(expected.toByteArray(), out.toByteArray());
+        }
+    }
+
+    @Test
+    void rejectsJobsWhenTheQueueIsFull() throws Exception {
+        var running = new GatedSource();
+        var queued = new GatedSource();
+        try (var service = ReportService.builder().maxConcurrentJobs(1).queueCapacity(1).build()) {
+            var first = service.submit(job(running, OutputStream.nullOutputStream()).build());
+            assertTrue(running.started.await(30, TimeUnit.SECONDS));
+            var second = service.submit(job(queued, OutputStream.nullOutputStream()).build());
+            assertEquals(1, service.getRunningJobs());
+            assertEquals(1, service.getQueuedJobs());
+
+            var rejected = job(EmployeeRowSource.synthetic(10), OutputStream.nullOutputStream()).build();
+            assertThrows(RejectedExecutionException.class, () -> service.trySubmit(rejected, Duration.ofMillis(50)));
+
+            running.release.countDown();
+            queued.release.countDown();
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+            // The finished jobs gave their slots back
+            service.trySubmit(rejected, Duration.ofSeconds(30)).get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void cancelledJobsStopAndFreeTheirWorker() throws Exception {
+        var blocked = new GatedSource();
+        try (var service = ReportService.builder().maxConcurrentJobs(1).queueCapacity(0).build()) {
+            var cancelled = service.submit(job(blocked, OutputStream.nullOutputStream()).build());
+            assertTrue(blocked.started.await(30, TimeUnit.SECONDS));
+
+            assertTrue(cancelled.cancel(true));
+
+            assertThrows(CancellationException.class, cancelled::get);
+            // Only runs once the cancelled job has left the worker
+            var next = service.trySubmit(job(EmployeeRowSource.synthetic(10), OutputStream.nullOutputStream()).build(), Duration.ofSeconds(30));
+            assertTrue(next.get(30, TimeUnit.SECONDS) > 0);
+        }
+    }
+
+    @Test
+    void jobsRunningPastTheirTimeoutFail() throws Exception {
+        var blocked = new GatedSource();
+        try (var service = ReportService.builder().maxConcurrentJobs(1).queueCapacity(0).defaultTimeout(Duration.ofMinutes(5)).build()) {
+            var timedOut = service.submit(job(blocked, OutputStream.nullOutputStream()).timeout(Duration.ofMillis(200)).build());
+
+            var failure = assertThrows(ExecutionException.class, () -> timedOut.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, failure.getCause());
+            var next = service.trySubmit(job(EmployeeRowSource.synthetic(10), OutputStream.nullOutputStream()).build(), Duration.ofSeconds(30));
+            assertTrue(next.get(30, TimeUnit.SECONDS) > 0);
+        }
+    }
+
+    private static ReportJob.Builder job(EmployeeRowSource rowSource, OutputStream out) {
+        return ReportJob.builder(rowSource).reportDate(REPORT_DATE).output(out);
+    }
+
+    // Holds its job on the worker until released or interrupted
+    private static final class GatedSource implements EmployeeRowSource {
+        private final EmployeeRowSource rows = EmployeeRowSource.synthetic(2000);
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public Iterator<EmployeeRow> open() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rows.open();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardedReportTest {
+
+    private static final List<EmployeeColumn> COLUMNS = List.of(EmployeeColumn.values());
+    private static final LocalDate REPORT_DATE = LocalDate.of(2024, 1, 2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mergedOutputIsTheSameAsOneProcess() throws IOException {
+        var rowSource = EmployeeRowSource.synthetic(20_000, 5, 3, 2);
+        var layout = Pdfbox.planReportTable(rowSource);
+        var report = ShardedReport.builder("synthetic:20000:5,3,2")
+                .workers(3)
+                .reportDate(REPORT_DATE)
+                .partDirectory(directory)
+                .jvmOptions(List.of("-Xmx128m"))
+                .build();
+
+        var sharded = new ByteArrayOutputStream();
+        assertEquals(layout.getPageCount(), report.write(sharded));
+
+        // Same bodies drawn in this process and merged the same way
+        var bodies = new ArrayDeque<byte[]>();
+        Pdfbox.drawPageBodies(rowSource, COLUMNS, layout, 1, layout.getPageCount(), bodies::addAll);
+        var merged = new ByteArrayOutputStream();
+        Pdfbox.writePdf(COLUMNS, layout, REPORT_DATE, bodies::remove, merged);
+        assertArrayEquals(merged.toByteArray(), sharded.toByteArray());
+
+        // A page is written as two content streams rather than one, with the same text in reading order
+        var single = new ByteArrayOutputStream();
+        Pdfbox.writePdf(rowSource, COLUMNS, layout, REPORT_DATE, 1, layout.getPageCount(), 1, single);
+        assertEquals(text(single.toByteArray()), text(sharded.toByteArray()));
+
+        // The parts are deleted once merged
+        try (var parts = Files.list(directory)) {
+            assertEquals(0, parts.count());
+        }
+    }
+
+    private static String text(byte[] pdf) throws IOException {
+        try (var document = PDDocument.load(pdf)) {
+            var stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            return stripper.getText(document);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ilyas.pdfbox_demo.Pdfbox;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextMeasureTest {
+
+    private static final String ELLIPSIS = "…";
+    private static final TextMeasure MEASURE = TextMeasure.of(PDType1Font.HELVETICA_BOLD, 8);
+
+    // Widths are float sums, added up in another order by fit
+    private static final float SLACK = 0.01f;
+
+    @Test
+    void addsUpTheGlyphWidthsOfTheFont() throws IOException {
+        var text = "Employee Report 2024";
+        assertEquals(PDType1Font.HELVETICA_BOLD.getStringWidth(text) / 1000 * 8, MEASURE.width(text), 0.001);
+        assertEquals(MEASURE.width("-1234"), MEASURE.width(-1234), 0.001);
+        assertEquals(MEASURE.width("1,234.50"), MEASURE.width("x1,234.50".getBytes(StandardCharsets.ISO_8859_1), 1, 8), 0.001);
+    }
+
+    @Test
+    void returnsTextThatFitsAsItIs() {
+        var text = "PREFERRED";
+        assertSame(text, MEASURE.fit(text, MEASURE.width(text)));
+    }
+
+    @Test
+    void shortensTextThatDoesNotFit() {
+        var text = "PREFERRED PLATINUM";
+        var maxWidth = MEASURE.width("PREFERRED PL") + MEASURE.width(ELLIPSIS) + SLACK;
+        var fitted = MEASURE.fit(text, maxWidth);
+        assertEquals("PREFERRED PL" + ELLIPSIS, fitted);
+        assertTrue(MEASURE.width(fitted) <= maxWidth);
+    }
+
+    @Test
+    void dropsSpacesBeforeTheEllipsis() {
+        var maxWidth = MEASURE.width("PREFERRED ") + MEASURE.width(ELLIPSIS) + SLACK;
+        assertEquals("PREFERRED" + ELLIPSIS, MEASURE.fit("PREFERRED PLATINUM", maxWidth));
+    }
+
+    @Test
+    void returnsNothingWhenNotEvenTheEllipsisFits() {
+        assertEquals("", MEASURE.fit("PREFERRED", MEASURE.width(ELLIPSIS) / 2));
+    }
+
+    @Test
+    void remembersShortenedTextsPerWidth() {
+        var text = "Wolfeschlegelsteinhausenbergerdorff";
+        var narrow = MEASURE.width("Wolfe") + MEASURE.width(ELLIPSIS) + SLACK;
+        var wide = MEASURE.width("Wolfeschlegel") + MEASURE.width(ELLIPSIS) + SLACK;
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Wolfe" + ELLIPSIS, MEASURE.fit(text, narrow));
+            assertEquals("Wolfeschlegel" + ELLIPSIS, MEASURE.fit(text, wide));
+        }
+    }
+}